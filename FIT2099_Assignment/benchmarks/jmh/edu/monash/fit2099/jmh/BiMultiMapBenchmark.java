@@ -0,0 +1,92 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.monash.fit2099.simulator.util.BiMultiMap;
+
+/**
+ * Benchmarks <code>BiMultiMap.put</code> and <code>BiMultiMap.reverseLookup</code> with as many values as a grid has 
+ * <code>Locations</code> and as many keys as there are entities, and <code>put</code> in a crowd, where all the keys
+ * share two values between them the way the entities of a battle share a <code>Location</code>.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiMultiMapBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int gridSize;
+
+	@Param({ "100", "10000" })
+	public int entityCount;
+
+	private BiMultiMap<Object, Object> map;
+	private BiMultiMap<Object, Object> crowd;
+	private Object[] keys;
+	private Object[] values;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		random = new Random(2099);
+		keys = new Object[entityCount];
+		values = new Object[gridSize * gridSize];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+		}
+		for (int i = 0; i < values.length; i++) {
+			values[i] = new Object();
+		}
+
+		map = new BiMultiMap<Object, Object>();
+		for (Object key : keys) {
+			map.put(key, values[random.nextInt(values.length)]);
+		}
+
+		crowd = new BiMultiMap<Object, Object>();
+		for (Object key : keys) {
+			crowd.put(key, values[random.nextInt(2)]);
+		}
+	}
+
+	/**
+	 * Moving a key to another value, the way an entity moves to another <code>Location</code>.
+	 */
+	@Benchmark
+	public Object put() {
+		return map.put(keys[random.nextInt(keys.length)], values[random.nextInt(values.length)]);
+	}
+
+	/**
+	 * Moving a key between two crowded values, which costs as much as <code>put</code> if relocation takes constant time.
+	 */
+	@Benchmark
+	public Object putCrowded() {
+		return crowd.put(keys[random.nextInt(keys.length)], values[random.nextInt(2)]);
+	}
+
+	@Benchmark
+	public ArrayList<Object> reverseLookup() {
+		return map.reverseLookup(values[random.nextInt(values.length)]);
+	}
+}
@@ -0,0 +1,77 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.monash.fit2099.simulator.matter.Action;
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.EntityManager;
+
+/**
+ * Benchmarks the lookups and updates of <code>EntityManager</code> in a <code>GridWorld</code>.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityManagerBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int gridSize;
+
+	@Param({ "100", "10000" })
+	public int entityCount;
+
+	private GridWorld world;
+	private EntityManager<EntityInterface, GridWorld.Cell> entities;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		world = new GridWorld(gridSize, entityCount, 2099);
+		entities = world.entities();
+		random = new Random(2099);
+	}
+
+	private GridWorld.Walker randomWalker() {
+		return world.getWalkers().get(random.nextInt(entityCount));
+	}
+
+	@Benchmark
+	public List<EntityInterface> contents() {
+		return entities.contents(world.randomCell(random));
+	}
+
+	@Benchmark
+	public GridWorld.Cell whereIs() {
+		return entities.whereIs(randomWalker());
+	}
+
+	@Benchmark
+	public void setLocation() {
+		entities.setLocation(randomWalker(), world.randomCell(random));
+	}
+
+	@Benchmark
+	public List<Action> getActionsFor() {
+		return entities.getActionsFor(randomWalker());
+	}
+}
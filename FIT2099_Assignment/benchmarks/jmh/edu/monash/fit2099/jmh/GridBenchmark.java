@@ -0,0 +1,44 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building a world: the <code>Grid</code> constructor, and the <code>Grid</code> filled with entities.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int gridSize;
+
+	@Param({ "100", "10000" })
+	public int entityCount;
+
+	@Benchmark
+	public GridWorld.Field constructor() {
+		return new GridWorld.Field(gridSize);
+	}
+
+	@Benchmark
+	public GridWorld populatedWorld() {
+		return new GridWorld(gridSize, entityCount, 2099);
+	}
+}
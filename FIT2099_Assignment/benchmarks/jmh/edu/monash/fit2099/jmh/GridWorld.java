@@ -0,0 +1,144 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import edu.monash.fit2099.gridworld.Grid;
+import edu.monash.fit2099.simulator.matter.Action;
+import edu.monash.fit2099.simulator.matter.Actor;
+import edu.monash.fit2099.simulator.matter.Affordance;
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.LocationMaker;
+import edu.monash.fit2099.simulator.space.World;
+import edu.monash.fit2099.simulator.time.Scheduler;
+
+/**
+ * A square <code>World</code> of any size, filled with <code>Walkers</code> at random <code>Locations</code>, for 
+ * benchmarking the simulator without the rules of a game.
+ * <p>
+ * Every <code>Walker</code> can be poked (it has an <code>Affordance</code>) and schedules an <code>Action</code> that 
+ * does nothing whenever it gets to act, so the <code>Scheduler</code> and the tick loop get exercised the way a game would.
+ *
+ * @author agent
+ */
+public class GridWorld extends World {
+
+	public static class Cell extends Location {
+	}
+
+	public static class Field extends Grid<Cell> {
+		public Field(int size) {
+			super(size, size, new LocationMaker<Cell>() {
+				@Override
+				public Cell make() {
+					return new Cell();
+				}
+			});
+		}
+	}
+
+	/**
+	 * An <code>Action</code> that does nothing but take time.
+	 */
+	public static class Idle extends Affordance {
+
+		public Idle(EntityInterface target, int cooldown) {
+			super(target, null);
+			setCooldown(cooldown);
+		}
+
+		@Override
+		public int getDuration() {
+			return 1;
+		}
+
+		@Override
+		public void execute(Actor<?> actor) {
+		}
+
+		@Override
+		public String getDescription() {
+			return "idle";
+		}
+	}
+
+	/**
+	 * An <code>Actor</code> that keeps scheduling <code>Idle</code> with a random cooldown.
+	 */
+	public static class Walker extends Actor<Action> {
+
+		private Scheduler scheduler;
+		private Random random;
+
+		public Walker(Scheduler scheduler, Random random) {
+			super(null);
+			this.scheduler = scheduler;
+			this.random = random;
+			actions = new HashSet<Action>();
+			addAffordance(new Idle(this, 0));
+			addAction(new Idle(this, 0));
+		}
+
+		@Override
+		public void act() {
+			scheduler.schedule(new Idle(this, random.nextInt(4)), this, 1);
+		}
+	}
+
+	private EntityManager<EntityInterface, Cell> entityManager = new EntityManager<EntityInterface, Cell>();
+
+	private Field field;
+
+	private Scheduler scheduler;
+
+	private ArrayList<Walker> walkers = new ArrayList<Walker>();
+
+	/**
+	 * Builds a <code>size</code> by <code>size</code> world with <code>entities</code> <code>Walkers</code> in it.
+	 *
+	 * @param size the width and height of the grid
+	 * @param entities the number of <code>Walkers</code>
+	 * @param seed seed for where the <code>Walkers</code> go and what they do
+	 */
+	public GridWorld(int size, int entities, long seed) {
+		field = new Field(size);
+		space = field;
+		scheduler = new Scheduler(1, this);
+
+		Random random = new Random(seed);
+		for (int i = 0; i < entities; i++) {
+			Walker w = new Walker(scheduler, random);
+			walkers.add(w);
+			entityManager.setLocation(w, randomCell(random));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <E extends EntityInterface, L extends Location> EntityManager<E, L> getEntityManager() {
+		return (EntityManager<E, L>) entityManager;
+	}
+
+	public EntityManager<EntityInterface, Cell> entities() {
+		return entityManager;
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	public Scheduler getScheduler() {
+		return scheduler;
+	}
+
+	public ArrayList<Walker> getWalkers() {
+		return walkers;
+	}
+
+	public Cell randomCell(Random random) {
+		return field.getLocationByCoordinates(random.nextInt(field.getWidth()), random.nextInt(field.getHeight()));
+	}
+}
@@ -0,0 +1,76 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.monash.fit2099.simulator.time.Event;
+import edu.monash.fit2099.simulator.time.Scheduler;
+
+/**
+ * Benchmarks <code>Scheduler.schedule</code> and <code>Scheduler.tick</code> in a <code>GridWorld</code>.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int gridSize;
+
+	@Param({ "100", "10000" })
+	public int entityCount;
+
+	private GridWorld world;
+	private Scheduler scheduler;
+	private Random random;
+	private GridWorld.Idle idle;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		world = new GridWorld(gridSize, entityCount, 2099);
+		scheduler = world.getScheduler();
+		random = new Random(2099);
+		idle = new GridWorld.Idle(null, 0);
+
+		//get into a steady state where the Walkers are spread over their cooldowns
+		for (int i = 0; i < 16; i++) {
+			scheduler.tick();
+		}
+	}
+
+	/**
+	 * One tick of the world: waking up, ticking the awake <code>Walkers</code> and executing the due <code>Events</code>.
+	 */
+	@Benchmark
+	public void tick() {
+		scheduler.tick();
+	}
+
+	/**
+	 * Scheduling an <code>Event</code> without an <code>Actor</code>, cancelled straight away so that the queue doesn't grow.
+	 */
+	@Benchmark
+	public Event schedule() {
+		Event e = scheduler.schedule(idle, null, random.nextInt(64));
+		e.cancel();
+		return e;
+	}
+}
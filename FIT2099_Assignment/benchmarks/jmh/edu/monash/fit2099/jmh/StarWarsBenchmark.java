@@ -0,0 +1,99 @@
+package edu.monash.fit2099.jmh;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.monash.fit2099.simulator.time.Scheduler;
+import edu.monash.fit2099.simulator.userInterface.MessageRenderer;
+import starwars.SWActor;
+import starwars.SWWorld;
+import starwars.entities.actors.TuskenRaider;
+import starwars.entities.actors.behaviors.AttackInformation;
+import starwars.entities.actors.behaviors.AttackNeighbours;
+import starwars.userinterfaces.TextInterface;
+
+/**
+ * Benchmarks the hot paths of the Star Wars game: <code>AttackNeighbours.attackLocals</code> and drawing the grid of
+ * the <code>TextInterface</code>, in an <code>SWWorld</code> crowded with Tusken Raiders.
+ * <p>
+ * The <code>SWWorld</code> has a square grid of <code>gridSize</code> by <code>gridSize</code>, so that the numbers show 
+ * how the hot paths scale with the size of the grid as well as with the number of <code>Entities</code>.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StarWarsBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int gridSize;
+
+	@Param({ "100", "10000" })
+	public int entityCount;
+
+	private SWWorld world;
+	private ArrayList<TuskenRaider> raiders;
+	private TextInterface textInterface;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		MessageRenderer silent = new MessageRenderer() {
+			@Override
+			public void render(String message) {
+			}
+		};
+
+		world = new SWWorld(gridSize, gridSize);
+		SWActor.setScheduler(new Scheduler(1, world));
+		world.initializeWorld(silent, false);
+		textInterface = new TextInterface(world);
+		random = new Random(2099);
+
+		raiders = new ArrayList<TuskenRaider>();
+		for (int i = 0; i < entityCount; i++) {
+			TuskenRaider raider = new TuskenRaider(50, "Raider " + i, silent, world);
+			raider.setSymbol("T");
+			raiders.add(raider);
+			SWWorld.getEntitymanager().setLocation(raider,
+					world.getGrid().getLocationByCoordinates(random.nextInt(gridSize), random.nextInt(gridSize)));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		//the entity manager of SWWorld is static, so leave it as we found it
+		for (TuskenRaider raider : raiders) {
+			SWWorld.getEntitymanager().remove(raider);
+		}
+	}
+
+	@Benchmark
+	public AttackInformation attackLocals() {
+		return AttackNeighbours.attackLocals(raiders.get(random.nextInt(entityCount)), world, false, false);
+	}
+
+	@Benchmark
+	public String drawGrid() {
+		return textInterface.getGridText();
+	}
+}
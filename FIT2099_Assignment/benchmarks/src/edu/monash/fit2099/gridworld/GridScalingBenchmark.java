@@ -0,0 +1,77 @@
+package edu.monash.fit2099.gridworld;
+
+import starwars.SWGrid;
+import starwars.SWLocation;
+
+/**
+ * Measures how the time it takes to build a <code>Grid</code>, and the memory the <code>Grid</code> takes up, grow with
+ * the number of <code>Locations</code> in it.
+ * <p>
+ * Each size is built a number of times. For the fastest build, and for the fastest walk over every <code>Location</code>
+ * afterwards, which makes all the <code>Locations</code> the <code>Grid</code> makes lazily, the time is reported along 
+ * with the heap in use afterwards, net of the heap in use before, per <code>Location</code>. The sizes are the widths of 
+ * square grids.
+ * <p>
+ * Usage: <code>java edu.monash.fit2099.gridworld.GridScalingBenchmark [builds] [size...]</code>
+ * <p>
+ * The largest of the default sizes, 2000 by 2000, needs a heap of about 2GB, e.g. <code>-Xmx4g</code>.
+ *
+ * @author agent
+ */
+public class GridScalingBenchmark {
+
+	public static void main(String[] args) {
+		int builds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int[] sizes = { 100, 300, 1000, 2000 };
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.println(String.format("%8s %12s %12s %12s %12s %12s", "size", "locations", "build ms", "bytes/loc", 
+				"walk ms", "bytes/loc"));
+		for (int size : sizes) {
+			long bestBuild = Long.MAX_VALUE;
+			long bestWalk = Long.MAX_VALUE;
+			long built = 0;
+			long walked = 0;
+			for (int b = 0; b < builds; b++) {
+				long before = usedHeap();
+				long start = System.nanoTime();
+				SWGrid grid = new SWGrid(size, size, SWLocation.getMaker());
+				bestBuild = Math.min(bestBuild, System.nanoTime() - start);
+				built = usedHeap() - before;
+				
+				start = System.nanoTime();
+				for (int y = 0; y < size; y++) {
+					for (int x = 0; x < size; x++) {
+						grid.getLocationByCoordinates(x, y);
+					}
+				}
+				bestWalk = Math.min(bestWalk, System.nanoTime() - start);
+				walked = usedHeap() - before;
+				if (grid.getMaterializedCount() != (long) size * size) {
+					throw new AssertionError(); //also keeps the grid reachable until its size has been measured
+				}
+			}
+			long locations = (long) size * size;
+			System.out.println(String.format("%8d %12d %12.1f %12.1f %12.1f %12.1f", size, locations, bestBuild / 1e6, 
+					(double) built / locations, bestWalk / 1e6, (double) walked / locations));
+		}
+	}
+
+	/**
+	 * Returns the number of bytes of heap in use, once the garbage has been collected.
+	 *
+	 * @return 	the heap in use
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,215 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.monash.fit2099.gridworld.Grid;
+import edu.monash.fit2099.gridworld.Grid.CompassBearing;
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.LocationMaker;
+import edu.monash.fit2099.simulator.space.World;
+import edu.monash.fit2099.simulator.time.Scheduler;
+
+/**
+ * Measures ticks per second of a crowded <code>World</code> ticked sequentially and in parallel on 1 to N cores.
+ * <p>
+ * Every <code>Actor</code> looks around its neighbourhood and does some work to pick a direction on each tick, then 
+ * schedules a step in that direction, the way the <code>Actors</code> of a game decide what to do. Each <code>Actor</code> 
+ * has its own seeded source of random numbers, so every run must end in the same state; the benchmark checks this by 
+ * comparing a checksum of all the steps taken against the sequential run.
+ * <p>
+ * Usage: <code>java edu.monash.fit2099.simulator.matter.ParallelTickBenchmark [size] [actors] [ticks] [maxCores]</code>
+ *
+ * @author agent
+ */
+public class ParallelTickBenchmark {
+
+	private static class Cell extends Location {
+	}
+
+	private static class Field extends Grid<Cell> {
+		public Field(int size) {
+			super(size, size, new LocationMaker<Cell>() {
+				@Override
+				public Cell make() {
+					return new Cell();
+				}
+			});
+		}
+	}
+
+	private static class Arena extends World {
+
+		private EntityManager<EntityInterface, Location> entityManager = new EntityManager<EntityInterface, Location>();
+
+		private Field field;
+
+		public Arena(int size) {
+			field = new Field(size);
+			space = field;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <E extends EntityInterface, L extends Location> EntityManager<E, L> getEntityManager() {
+			return (EntityManager<E, L>) entityManager;
+		}
+	}
+
+	/**
+	 * Takes a step in a direction, if there is a way.
+	 */
+	private static class Step extends Action {
+
+		private Arena arena;
+		private CompassBearing heading;
+		private Checksum checksum;
+
+		public Step(Arena arena, CompassBearing heading, int cooldown, Checksum checksum) {
+			super(null);
+			this.arena = arena;
+			this.heading = heading;
+			this.checksum = checksum;
+			setCooldown(cooldown);
+		}
+
+		@Override
+		public int getDuration() {
+			return 1;
+		}
+
+		@Override
+		public void execute(Actor<?> actor) {
+			Location here = arena.entityManager.whereIs(actor);
+			Location there = here.materializeNeighbour(heading);
+			if (there != null) {
+				arena.entityManager.setLocation(actor, there);
+			}
+			checksum.add(((Walker) actor).id * 8 + heading.ordinal());
+		}
+
+		@Override
+		public String getDescription() {
+			return "step " + heading;
+		}
+	}
+
+	private static class Walker extends Actor<Step> {
+
+		private int id;
+		private Arena arena;
+		private Scheduler scheduler;
+		private Random random;
+		private Checksum checksum;
+		private int work;
+
+		public Walker(int id, Arena arena, Scheduler scheduler, Checksum checksum, int work) {
+			super(null);
+			this.id = id;
+			this.arena = arena;
+			this.scheduler = scheduler;
+			this.random = new Random(id);
+			this.checksum = checksum;
+			this.work = work;
+		}
+
+		@Override
+		public void act() {
+			Location here = arena.entityManager.whereIs(this);
+
+			//head for the least crowded neighbour, with some busy work standing in for decision making
+			CompassBearing best = null;
+			long bestScore = Long.MAX_VALUE;
+			for (CompassBearing cb : CompassBearing.values()) {
+				if (!here.hasExit(cb)) {
+					continue;
+				}
+				Location there = here.getNeighbour(cb); //null if it hasn't been made, in which case nobody is there
+				List<EntityInterface> crowd = there == null ? null : arena.entityManager.contents(there);
+				long score = (crowd == null ? 0 : crowd.size()) * 1000L + random.nextInt(1000);
+				for (int i = 0; i < work; i++) {
+					score = score * 6364136223846793005L + 1442695040888963407L;
+				}
+				score = (score >>> 1) % 997;
+				if (score < bestScore) {
+					bestScore = score;
+					best = cb;
+				}
+			}
+			scheduler.schedule(new Step(arena, best, random.nextInt(3), checksum), this, 1);
+		}
+	}
+
+	/**
+	 * An order-sensitive checksum of the steps taken.
+	 */
+	private static class Checksum {
+		private long value = 17;
+
+		public void add(long x) {
+			value = value * 31 + x;
+		}
+	}
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int actors = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		int maxCores = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		int work = 200;
+
+		//warm up
+		run(size, actors, ticks, work, 0);
+		long expected = run(size, actors, ticks, work, 0)[1];
+
+		long[] sequential = run(size, actors, ticks, work, 0);
+		System.out.println("cores\tticks/s\tspeedup\tsame");
+		System.out.println("seq\t" + sequential[0] + "\t1.00\t" + (sequential[1] == expected));
+		for (int cores = 1; cores <= maxCores; cores *= 2) {
+			run(size, actors, ticks, work, cores);
+			long[] parallel = run(size, actors, ticks, work, cores);
+			System.out.println(cores + "\t" + parallel[0] + "\t" + String.format("%.2f", (double) parallel[0] / sequential[0])
+					+ "\t" + (parallel[1] == expected));
+		}
+	}
+
+	/**
+	 * Runs a crowded <code>Arena</code> for a number of ticks.
+	 *
+	 * @param size the width and height of the arena
+	 * @param actors the number of <code>Actors</code>
+	 * @param ticks the number of ticks to run for
+	 * @param work the amount of busy work per neighbour an <code>Actor</code> looks at
+	 * @param cores the parallelism of the pool to tick on, or zero (0) to tick sequentially
+	 * @return the ticks per second and the checksum of the steps taken
+	 */
+	private static long[] run(int size, int actors, int ticks, int work, int cores) {
+		Arena arena = new Arena(size);
+		Scheduler scheduler = new Scheduler(1, arena);
+		Checksum checksum = new Checksum();
+		Random random = new Random(2099);
+
+		for (int i = 0; i < actors; i++) {
+			Walker w = new Walker(i, arena, scheduler, checksum, work);
+			arena.entityManager.setLocation(w, arena.field.getLocationByCoordinates(random.nextInt(size), random.nextInt(size)));
+		}
+
+		ForkJoinPool pool = null;
+		if (cores > 0) {
+			pool = new ForkJoinPool(cores);
+			arena.setParallelTick(pool, arena.field.stripes(cores * 4));
+		}
+
+		long start = System.nanoTime();
+		for (int t = 0; t < ticks; t++) {
+			scheduler.tick();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		if (pool != null) {
+			pool.shutdown();
+		}
+		return new long[] { ticks * 1000000000L / elapsed, checksum.value };
+	}
+}
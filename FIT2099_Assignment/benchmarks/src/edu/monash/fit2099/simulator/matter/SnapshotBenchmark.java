@@ -0,0 +1,171 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+
+import edu.monash.fit2099.gridworld.Grid;
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.LocationMaker;
+
+/**
+ * Measures what it costs the thread that ticks to take a snapshot of where the <code>Entities</code> are after every
+ * tick, against copying the whole map, while a reader thread reads every snapshot it can get.
+ * <p>
+ * Each tick moves a number of <code>Entities</code> at random. The ticking thread keeps a running checksum of where
+ * everything is and hands it over with each snapshot, and the reader checks that the snapshot adds up to the same
+ * checksum, i.e. that it hasn't been disturbed by the ticks that ran while it was being read.
+ * <p>
+ * Usage: <code>java edu.monash.fit2099.simulator.matter.SnapshotBenchmark [size] [entities] [movesPerTick] [ticks]</code>
+ *
+ * @author agent
+ */
+public class SnapshotBenchmark {
+
+	private static class Cell extends Location {
+	}
+
+	private static class Field extends Grid<Cell> {
+		public Field(int size) {
+			super(size, size, new LocationMaker<Cell>() {
+				@Override
+				public Cell make() {
+					return new Cell();
+				}
+			});
+		}
+	}
+
+	/**
+	 * An <code>Entity</code> that just sits where it's put.
+	 */
+	private static class Thing extends Entity {
+		public Thing() {
+			super(null);
+		}
+	}
+
+	/**
+	 * A snapshot with the checksum it should add up to.
+	 */
+	private static class Handover {
+		private final EntitySnapshot<Thing, Cell> snapshot;
+		private final long checksum;
+
+		public Handover(EntitySnapshot<Thing, Cell> snapshot, long checksum) {
+			this.snapshot = snapshot;
+			this.checksum = checksum;
+		}
+	}
+
+	/**The snapshot that tells the reader to stop*/
+	private static final Handover STOP = new Handover(null, 0);
+
+	public static void main(String[] args) throws InterruptedException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int entities = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		int moves = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+
+		final Field field = new Field(size);
+		EntityManager<Thing, Cell> entityManager = new EntityManager<Thing, Cell>();
+		Thing[] things = new Thing[entities];
+		Random random = new Random(2099);
+		long checksum = 0;
+		for (int i = 0; i < entities; i++) {
+			things[i] = new Thing();
+			Cell cell = field.getLocationByCoordinates(random.nextInt(size), random.nextInt(size));
+			entityManager.setLocation(things[i], cell);
+			checksum += field.indexOf(cell);
+		}
+
+		//the reader checks every snapshot it is handed, and is handed a new one whenever it's ready for it
+		final BlockingQueue<Handover> queue = new ArrayBlockingQueue<Handover>(1);
+		final long[] read = new long[2]; //snapshots read, and snapshots that didn't add up
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Handover h;
+					while ((h = queue.take()) != STOP) {
+						final long[] sum = new long[1];
+						h.snapshot.forEach(new BiConsumer<Thing, Cell>() {
+							@Override
+							public void accept(Thing t, Cell c) {
+								sum[0] += field.indexOf(c);
+							}
+						});
+						read[0]++;
+						if (sum[0] != h.checksum) {
+							read[1]++;
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		reader.start();
+
+		//warm up both ways of running
+		for (int t = 0; t < ticks; t++) {
+			checksum = move(field, entityManager, things, moves, random, checksum);
+			entityManager.takeSnapshot();
+			IdentityHashMap<Thing, Cell> copy = new IdentityHashMap<Thing, Cell>(entities);
+			for (Thing thing : things) {
+				copy.put(thing, entityManager.whereIs(thing));
+			}
+		}
+
+		//ticks with a snapshot after each, timing the moves too, since they pay for the chunks copied on write
+		long start = System.nanoTime();
+		for (int t = 0; t < ticks; t++) {
+			checksum = move(field, entityManager, things, moves, random, checksum);
+			queue.offer(new Handover(entityManager.takeSnapshot(), checksum)); //dropped if the reader is still busy
+		}
+		long snapshotNanos = System.nanoTime() - start;
+		queue.put(STOP);
+		reader.join();
+
+		//the same ticks without snapshots, and with a copy of where every Entity is instead
+		long moveNanos = 0;
+		long copyNanos = 0;
+		for (int t = 0; t < ticks; t++) {
+			start = System.nanoTime();
+			checksum = move(field, entityManager, things, moves, random, checksum);
+			moveNanos += System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			IdentityHashMap<Thing, Cell> copy = new IdentityHashMap<Thing, Cell>(entities);
+			for (Thing thing : things) {
+				copy.put(thing, entityManager.whereIs(thing));
+			}
+			copyNanos += System.nanoTime() - start;
+		}
+
+		System.out.println("entities=" + entities + " moves/tick=" + moves + " ticks=" + ticks);
+		System.out.println(String.format("moves alone:          %8.1f us/tick", moveNanos / 1000.0 / ticks));
+		System.out.println(String.format("moves + snapshot:     %8.1f us/tick", snapshotNanos / 1000.0 / ticks));
+		System.out.println(String.format("moves + full copy:    %8.1f us/tick", (moveNanos + copyNanos) / 1000.0 / ticks));
+		System.out.println("snapshots read=" + read[0] + " inconsistent=" + read[1]);
+	}
+
+	/**
+	 * Moves some <code>Entities</code> to random cells.
+	 *
+	 * @return the checksum of where everything is, once they have moved
+	 */
+	private static long move(Field field, EntityManager<Thing, Cell> entityManager, Thing[] things, int moves, Random random,
+			long checksum) {
+		int size = field.getWidth();
+		for (int m = 0; m < moves; m++) {
+			Thing thing = things[random.nextInt(things.length)];
+			Cell cell = field.getLocationByCoordinates(random.nextInt(size), random.nextInt(size));
+			checksum += field.indexOf(cell) - field.indexOf(entityManager.whereIs(thing));
+			entityManager.setLocation(thing, cell);
+		}
+		return checksum;
+	}
+}
@@ -0,0 +1,152 @@
+package edu.monash.fit2099.simulator.time;
+
+import java.lang.management.ManagementFactory;
+
+import edu.monash.fit2099.gridworld.Grid;
+import edu.monash.fit2099.simulator.matter.Action;
+import edu.monash.fit2099.simulator.matter.Actor;
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.LocationMaker;
+import edu.monash.fit2099.simulator.space.World;
+
+/**
+ * Measures the bytes allocated per executed <code>Action</code> once a <code>World</code> full of non-player
+ * <code>Actors</code> has warmed up, with the <code>Actions</code> <code>post</code>ed to the <code>Scheduler</code> and
+ * with them <code>schedule</code>d.
+ * <p>
+ * Every <code>Actor</code> reuses its own <code>Action</code> and waits a random cooldown after it, so <code>Actors</code> are
+ * put to sleep and woken up all the time. With <code>post</code> the steady state should not allocate at all; the
+ * benchmark reports <code>PASS</code> if it allocates less than one byte per <code>Action</code>. The <code>Actions</code>
+ * don't move their <code>Actors</code>, since moving allocates in the <code>EntityManager</code> itself.
+ * <p>
+ * Allocation is read from the <code>com.sun.management.ThreadMXBean</code> of HotSpot JVMs.
+ * <p>
+ * Usage: <code>java edu.monash.fit2099.simulator.time.EventPoolBenchmark [actors] [ticks]</code>
+ *
+ * @author agent
+ */
+public class EventPoolBenchmark {
+
+	private static class Cell extends Location {
+	}
+
+	private static class Field extends Grid<Cell> {
+		public Field(int size) {
+			super(size, size, new LocationMaker<Cell>() {
+				@Override
+				public Cell make() {
+					return new Cell();
+				}
+			});
+		}
+	}
+
+	private static class Arena extends World {
+
+		private EntityManager<EntityInterface, Location> entityManager = new EntityManager<EntityInterface, Location>();
+
+		private Field field;
+
+		public Arena(int size) {
+			field = new Field(size);
+			space = field;
+			setSeed(2099);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <E extends EntityInterface, L extends Location> EntityManager<E, L> getEntityManager() {
+			return (EntityManager<E, L>) entityManager;
+		}
+	}
+
+	/**
+	 * Gathers some food where the <code>Actor</code> is.
+	 */
+	private static class Forage extends Action {
+
+		public Forage() {
+			super(null);
+		}
+
+		@Override
+		public int getDuration() {
+			return 1;
+		}
+
+		@Override
+		public void execute(Actor<?> actor) {
+			((Forager) actor).food++;
+		}
+
+		@Override
+		public String getDescription() {
+			return "forage";
+		}
+	}
+
+	private static class Forager extends Actor<Forage> {
+
+		private Arena arena;
+		private Scheduler scheduler;
+		private boolean pooled;
+		private Forage forage = new Forage();
+		private long food = 0;
+
+		public Forager(Arena arena, Scheduler scheduler, boolean pooled) {
+			super(null);
+			this.arena = arena;
+			this.scheduler = scheduler;
+			this.pooled = pooled;
+		}
+
+		@Override
+		public void act() {
+			forage.setCooldown(arena.getRandom().get().nextInt(3));
+			if (pooled) {
+				scheduler.post(forage, this, 1);
+			}
+			else {
+				scheduler.schedule(forage, this, 1);
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		int actors = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		System.out.println("mode\tactions\tbytes/action\tresult");
+		for (boolean pooled : new boolean[] { false, true }) {
+			Arena arena = new Arena(100);
+			Scheduler scheduler = new Scheduler(1, arena);
+			for (int i = 0; i < actors; i++) {
+				arena.entityManager.setLocation(new Forager(arena, scheduler, pooled),
+						arena.field.getLocationByCoordinates(i % 100, (i / 100) % 100));
+			}
+
+			//warm up until the pools, lists and maps have grown to their working size and the code has been compiled
+			for (int t = 0; t < ticks; t++) {
+				scheduler.tick();
+			}
+
+			long thread = Thread.currentThread().getId();
+			long executed = scheduler.getEventsExecuted();
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int t = 0; t < ticks; t++) {
+				scheduler.tick();
+			}
+			long allocated = threads.getThreadAllocatedBytes(thread) - before;
+			executed = scheduler.getEventsExecuted() - executed;
+
+			double perAction = (double) allocated / executed;
+			System.out.println((pooled ? "post" : "schedule") + "\t" + executed + "\t" + String.format("%.2f", perAction)
+					+ "\t" + (pooled ? (perAction < 1 ? "PASS" : "FAIL") : "-"));
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package edu.monash.fit2099.simulator.time;
+
+import java.util.Random;
+
+import edu.monash.fit2099.simulator.matter.Action;
+import edu.monash.fit2099.simulator.matter.Actor;
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.World;
+
+/**
+ * Compares the <code>HeapEventQueue</code> and the <code>TimingWheelEventQueue</code> behind a <code>Scheduler</code>.
+ * <p>
+ * The <code>Scheduler</code> is kept at a steady number of pending <code>Events</code>: every <code>Event</code> that
+ * executes schedules itself again a random number of ticks later, the way an <code>Actor</code> keeps acting.
+ * The world is empty so that only the cost of the queue is measured.
+ * <p>
+ * Usage: <code>java edu.monash.fit2099.simulator.time.EventQueueBenchmark [maxDuration] [ticks]</code>
+ *
+ * @author agent
+ */
+public class EventQueueBenchmark {
+
+	/**
+	 * A <code>World</code> with nothing in it.
+	 */
+	private static class EmptyWorld extends World {
+
+		private EntityManager<EntityInterface, Location> entityManager = new EntityManager<EntityInterface, Location>();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <E extends EntityInterface, L extends Location> EntityManager<E, L> getEntityManager() {
+			return (EntityManager<E, L>) entityManager;
+		}
+	}
+
+	/**
+	 * An <code>Action</code> that schedules itself again when it is executed.
+	 */
+	private static class Repeat extends Action {
+
+		private Scheduler scheduler;
+		private Random random;
+		private int maxDuration;
+		private long executions = 0;
+
+		public Repeat(Scheduler scheduler, Random random, int maxDuration, int priority) {
+			super(null);
+			this.scheduler = scheduler;
+			this.random = random;
+			this.maxDuration = maxDuration;
+			this.priority = priority;
+		}
+
+		@Override
+		public int getDuration() {
+			return random.nextInt(maxDuration + 1);
+		}
+
+		@Override
+		public void execute(Actor<?> actor) {
+			executions++;
+			scheduler.schedule(this, null, getDuration());
+		}
+
+		@Override
+		public String getDescription() {
+			return "repeat";
+		}
+	}
+
+	public static void main(String[] args) {
+		int maxDuration = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+		System.out.println("pending\tqueue\tns/event");
+		for (int pending = 1000; pending <= 100000; pending *= 10) {
+			//warm up both queues before measuring
+			run(new HeapEventQueue(), pending, maxDuration, ticks);
+			run(new TimingWheelEventQueue(), pending, maxDuration, ticks);
+
+			System.out.println(pending + "\theap\t" + run(new HeapEventQueue(), pending, maxDuration, ticks));
+			System.out.println(pending + "\twheel\t" + run(new TimingWheelEventQueue(), pending, maxDuration, ticks));
+		}
+	}
+
+	/**
+	 * Runs a <code>Scheduler</code> with the given queue and returns the average time per executed <code>Event</code>.
+	 *
+	 * @param queue the queue under test
+	 * @param pending the number of <code>Events</code> kept pending
+	 * @param maxDuration the largest duration of an <code>Event</code>
+	 * @param ticks the number of ticks to run for
+	 * @return nanoseconds per executed <code>Event</code>, including scheduling it again
+	 */
+	private static long run(EventQueue queue, int pending, int maxDuration, int ticks) {
+		Scheduler scheduler = new Scheduler(1, new EmptyWorld(), queue);
+		Random random = new Random(2099);
+
+		Repeat[] repeats = new Repeat[pending];
+		for (int i = 0; i < pending; i++) {
+			repeats[i] = new Repeat(scheduler, random, maxDuration, i % 2);
+			scheduler.schedule(repeats[i], null, repeats[i].getDuration());
+		}
+
+		long start = System.nanoTime();
+		for (int t = 0; t < ticks; t++) {
+			scheduler.tick();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		long executions = 0;
+		for (Repeat r : repeats) {
+			executions += r.executions;
+		}
+		return executions == 0 ? 0 : elapsed / executions;
+	}
+}
@@ -1,13 +1,18 @@
 package edu.monash.fit2099.gridworld;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.TickPartitioner;
 import edu.monash.fit2099.simulator.space.Direction;
 import edu.monash.fit2099.simulator.space.Location;
 import edu.monash.fit2099.simulator.space.LocationContainer;
 import edu.monash.fit2099.simulator.space.LocationMaker;
+import edu.monash.fit2099.simulator.space.Topology;
 
 /**
  * <code>Grid</code> is a base class for a 2D array of <code>Locations</code>. It supports a maximum of 8-way movements in directions 
@@ -16,6 +21,16 @@ import edu.monash.fit2099.simulator.space.LocationMaker;
  * <p>
  * <code>CompassBearing</code> is an inner enum class that manages the Directions of this <code>Grid</code>
  * <p>
+ * A <code>Grid</code> is the <code>Topology</code> of its <code>Locations</code>: the neighbours of a <code>Location</code> 
+ * are worked out from its coordinates when they're asked for, rather than stored in each <code>Location</code>. Paths 
+ * placed with <code>placePaths</code> and exits blocked with {@link Location#blockExit(Direction)} take precedence.
+ * <p>
+ * The <code>Locations</code> are made lazily, a square chunk of <code>CHUNK</code> by <code>CHUNK</code> at a time, the first
+ * time one of them is asked for, e.g. because an <code>Entity</code> is put there or walks there. A chunk that hasn't been
+ * asked for costs a null reference, so a large map that is mostly unexplored starts fast and takes up memory in
+ * proportion to the explored part. Each new <code>Location</code> is passed to <code>materialized</code>, which a
+ * subclass overrides to give it the terrain of the map, e.g. its symbol and description.
+ * <p>
  * Generated using UML Lab
  * 
  * @author 		ram
@@ -37,9 +52,20 @@ import edu.monash.fit2099.simulator.space.LocationMaker;
  * 2017-01-20: 	Added comments to methods for better understanding (asel)
  * 2017-02-03:	Added a getter method for the angle since it's required by the GUI to show move buttons in their corresponding directions
  * 2017-02-17:	Removed condition that checks preconditions in getLocationByCoordinates method. It is already handled by the assertions (Asel)
+ * 2026-10-16:	Added rowOf and stripes so that Entities can be ticked in parallel in stripes of rows
+ * 2026-10-16:	CompassBearing constructor no longer reads validAngles, which javac rejects and which is still null at that point
+ * 2026-10-16:	Added getRandomBearing(SplittableRandom) for runs that can be replayed
+ * 2026-10-16:	Added columnOf and indexOf, so that Locations can be mapped back to their coordinates for spatial queries
+ * 2026-10-16:	The Locations are stored in one flat array indexed y * width + x instead of a list of rows, and the constructor
+ * 				links each Location to its neighbours in one pass instead of placing paths one pair at a time
+ * 2026-10-16:	The Grid is the Topology of its Locations and works out their neighbours, instead of storing them in each Location
+ * 2026-10-16:	Locations are made lazily in chunks the first time they are asked for, and queries skip the chunks that haven't been
+ * 2026-10-16:	Each Location is told its coordinates and index, so indexOf, rowOf and columnOf no longer look it up in a map.
+ * 				Added getLocationByIndex, distance and bearing
+ * 2026-10-17:	neighbourOf doesn't make the chunk of the neighbour, which is left to materializeNeighbour when something moves there
  */
 
-public abstract class Grid<T extends Location> extends LocationContainer<T> {
+public abstract class Grid<T extends Location> extends LocationContainer<T> implements Topology {
 	
 	/**
 	 * Class that manages the direction in which an <code>Entity</code> is heading as shown by a compass. Supports an 8-way movement 
@@ -65,6 +91,11 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 		 */
 		private int angle;
 		
+		/**
+		 * The change in the <code>x</code> and <code>y</code> coordinates of a step in the direction of this <code>CompassBearing</code>
+		 */
+		private final int dx, dy;
+		
 		/**
 		 * List of valid angles in a 8-way movement geometry that corresponds to each of the 8 <code>CompassBearings</code>
 		 * (0 for N, 45 for NE, 90 for E, 135 for SE, 180 for S, 225 for SW, 270 for W, 315 for NW)
@@ -97,9 +128,12 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 			assert (angle >=0 && angle <= 360)	:"angle should be between 0 and 360 inclusive";
 			
 			//Precondition 2 - Ensure angle corresponds to one of the 8 directions
-			assert (validAngles.contains(angle)):"angle should correpsond to one of the 8 directions";
+			//validAngles can't be used here, since the static fields of an enum are initialized after its constants
+			assert (angle % 45 == 0 && angle < 360):"angle should correpsond to one of the 8 directions";
 			
 			this.angle = angle;
+			this.dx = (int) Math.round(Math.sin(Math.toRadians(angle)));
+			this.dy = (int) -Math.round(Math.cos(Math.toRadians(angle))); //y increases moving from North to South
 		}
 		
 		/**
@@ -140,12 +174,27 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 		
 		/**
 		 * This method will return a random <code>CompassBearing</code>.
+		 * <p>
+		 * The bearing can't be reproduced in another run. Use <code>getRandomBearing(SplittableRandom)</code> with the
+		 * random numbers of the <code>World</code> to be able to replay a run.
 		 *  
 		 * @return 	a random <code>CompassBearing</code>
 		 * @post 	the returned <code>CompassBearing</code> corresponds to one of the 8 directions
 		 */
 		public static CompassBearing getRandomBearing() {
-			return values()[(int)(Math.random() * values().length)];
+			return values()[ThreadLocalRandom.current().nextInt(values().length)];
+		}
+		
+		/**
+		 * This method will return a random <code>CompassBearing</code> drawn from the given generator.
+		 *  
+		 * @param 	random the generator to draw from, e.g. <code>world.getRandom().get()</code>
+		 * @return 	a random <code>CompassBearing</code>
+		 * @post 	the returned <code>CompassBearing</code> corresponds to one of the 8 directions
+		 * @see 	{@link edu.monash.fit2099.simulator.util.RandomSource#get()}
+		 */
+		public static CompassBearing getRandomBearing(SplittableRandom random) {
+			return values()[random.nextInt(values().length)];
 		}
 		
 		/**
@@ -195,16 +244,32 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 	 * Maker of <code>Locations</code>
 	 */
 	private LocationMaker<T> factory;
+	
+	/**
+	 * The width and height of a chunk of <code>Locations</code> that are made together
+	 */
+	public static final int CHUNK = 16;
 
 	/**
-	 * A 2D array of <code>Locations</code>. Each element is a list of <code>Locations</code> of a row.
+	 * The chunks of the <code>Locations</code> of this <code>Grid</code>, row by row from the top left hand corner, or null 
+	 * for the chunks that haven't been made yet. The <code>Location</code> at (<code>x</code>, <code>y</code>) is at 
+	 * <code>(y % CHUNK) * CHUNK + x % CHUNK</code> in the chunk at <code>(y / CHUNK) * chunksAcross + x / CHUNK</code>.
 	 */
 	/*
-	 * We can't instantiate a 2D array, but we can use a factory to populate a List.
-	 * Declared as a List because UML Lab has trouble identifying implementations of the
-	 * generic collections.
+	 * We can't instantiate an array of T, but the factory only makes Ts, so arrays of Objects will do. The chunks are 
+	 * published through an AtomicReferenceArray, since Entities ticked in parallel may be the first to walk into a chunk.
 	 */
-	protected List<List<T>> locations;
+	private AtomicReferenceArray<Object[]> locations;
+	
+	/**
+	 * The number of chunks in a row of chunks
+	 */
+	private int chunksAcross;
+	
+	/**
+	 * The number of <code>Locations</code> of this <code>Grid</code> that have been made
+	 */
+	private volatile int materializedCount;
 	
 	/**
 	 * Method that returns the <code>Location</code> at the given coordinates (<code>x</code>, <code>y</code>) of this <code>Grid</code>.
@@ -222,6 +287,7 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 	 * @see		{@link #width}
 	 * @see		{@link #height}
 	 */
+	@SuppressWarnings("unchecked")
 	public T getLocationByCoordinates(int x, int y) {
 		
 		//Precondition 1 : for x coordinates
@@ -230,9 +296,120 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 		//Precondition 2 : for y coordinates
 		assert (y >=0 && y < height):"y coordinate should be greater than or equal to 0 and less than the "+height;
 		
-		return locations.get(y).get(x);
+		int c = (y / CHUNK) * chunksAcross + x / CHUNK;
+		Object[] chunk = locations.get(c);
+		if (chunk == null) {
+			chunk = materialize(c);
+		}
+		return (T) chunk[(y % CHUNK) * CHUNK + x % CHUNK]; //only the factory puts Locations in, and it makes Ts
+	}
+	
+	/**
+	 * Returns the <code>Location</code> with the given index, i.e. the <code>Location</code> at 
+	 * (<code>index % width</code>, <code>index / width</code>).
+	 * 
+	 * @param 	index the index of the desired Location
+	 * @pre 	<code>index</code> should be greater than or equal to 0 and less than <code>width * height</code>
+	 * @return 	the <code>Location</code> with the given index
+	 * @see 	#indexOf(Location)
+	 */
+	public T getLocationByIndex(int index) {
+		//Precondition 1: Ensure the index is in this Grid
+		assert (index >= 0 && index < width * height):"index should be greater than or equal to 0 and less than " + width * height;
 		
+		return getLocationByCoordinates(index % width, index / width);
+	}
+	
+	/**
+	 * Returns the <code>Location</code> at the given coordinates if it has been made, without making it. No 
+	 * <code>Entity</code> can be in a <code>Location</code> that hasn't been made, so queries that look for 
+	 * <code>Entities</code> use this to skip the unexplored parts of the map.
+	 * 
+	 * @param 	x West/East coordinate of desired Location
+	 * @param 	y North/South coordinate of desired Location
+	 * @pre		<code>x</code> and <code>y</code> should be in this <code>Grid</code>
+	 * @return 	the <code>Location</code> at the given coordinates, or null if it hasn't been made yet
+	 * @see 	#getLocationByCoordinates(int, int)
+	 */
+	@SuppressWarnings("unchecked")
+	public T peekLocation(int x, int y) {
+		//Precondition 1 : for the coordinates
+		assert (x >= 0 && x < width && y >= 0 && y < height):"(" + x + ", " + y + ") is not in the grid";
 		
+		Object[] chunk = locations.get((y / CHUNK) * chunksAcross + x / CHUNK);
+		return chunk == null ? null : (T) chunk[(y % CHUNK) * CHUNK + x % CHUNK];
+	}
+	
+	/**
+	 * Returns the number of <code>Locations</code> that have been made, which includes every <code>Location</code> in the 
+	 * chunks that have been asked for, whether or not it's on the map.
+	 * 
+	 * @return 	the number of <code>Locations</code> made so far
+	 */
+	public int getMaterializedCount() {
+		return materializedCount;
+	}
+	
+	/**
+	 * Makes the <code>Locations</code> of a chunk, unless another thread has just made them.
+	 * 
+	 * @param 	c the chunk
+	 * @return 	the <code>Locations</code> of the chunk
+	 */
+	private synchronized Object[] materialize(int c) {
+		Object[] chunk = locations.get(c);
+		if (chunk != null) {
+			return chunk;
+		}
+		chunk = new Object[CHUNK * CHUNK];
+		int left = (c % chunksAcross) * CHUNK;
+		int top = (c / chunksAcross) * CHUNK;
+		for (int y = top; y < Math.min(top + CHUNK, height); y++) {
+			for (int x = left; x < Math.min(left + CHUNK, width); x++) {
+				//make the location and tell it where it is, so that its neighbours can be worked out when they're asked for
+				T newLoc = factory.make();
+				int index = y * width + x;
+				chunk[(y % CHUNK) * CHUNK + x % CHUNK] = newLoc;
+				newLoc.placeIn(this, index, x, y);
+				materialized(newLoc, x, y);
+			}
+		}
+		materializedCount += chunkWidth(c) * chunkHeight(c); //only ever changed while holding the lock
+		locations.set(c, chunk); //only once it's complete
+		return chunk;
+	}
+	
+	/**
+	 * Returns the number of columns of a chunk, which is less than <code>CHUNK</code> on the East edge.
+	 * 
+	 * @param 	c the chunk
+	 * @return 	the number of columns of <code>c</code>
+	 */
+	private int chunkWidth(int c) {
+		return Math.min(CHUNK, width - (c % chunksAcross) * CHUNK);
+	}
+	
+	/**
+	 * Returns the number of rows of a chunk, which is less than <code>CHUNK</code> on the South edge.
+	 * 
+	 * @param 	c the chunk
+	 * @return 	the number of rows of <code>c</code>
+	 */
+	private int chunkHeight(int c) {
+		return Math.min(CHUNK, height - (c / chunksAcross) * CHUNK);
+	}
+	
+	/**
+	 * Called with each <code>Location</code> of this <code>Grid</code> when it has just been made, so that a subclass can 
+	 * give it the terrain of its part of the map. This does nothing by default.
+	 * <p>
+	 * This must not ask for <code>Locations</code> in other chunks.
+	 * 
+	 * @param 	loc the new <code>Location</code>
+	 * @param 	x West/East coordinate of <code>loc</code>
+	 * @param 	y North/South coordinate of <code>loc</code>
+	 */
+	protected void materialized(T loc, int x, int y) {
 	}
 	
 	/**
@@ -263,9 +440,177 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 		return width;
 	}
 	
+	/**
+	 * Returns the row, i.e. the <code>y</code> coordinate, of a <code>Location</code> of this <code>Grid</code>.
+	 * 
+	 * @param 	loc a <code>Location</code> of this <code>Grid</code>
+	 * @pre 	<code>loc</code> should be in this <code>Grid</code>
+	 * @return 	the row of <code>loc</code>
+	 */
+	public int rowOf(Location loc) {
+		//Precondition 1: Ensure the Location is in this Grid
+		assert (loc.getTopology() == this):"Location is not in this Grid";
+		
+		return loc.getY();
+	}
+	
+	/**
+	 * Returns the column, i.e. the <code>x</code> coordinate, of a <code>Location</code> of this <code>Grid</code>.
+	 * 
+	 * @param 	loc a <code>Location</code> of this <code>Grid</code>
+	 * @pre 	<code>loc</code> should be in this <code>Grid</code>
+	 * @return 	the column of <code>loc</code>
+	 */
+	public int columnOf(Location loc) {
+		//Precondition 1: Ensure the Location is in this Grid
+		assert (loc.getTopology() == this):"Location is not in this Grid";
+		
+		return loc.getX();
+	}
+	
+	/**
+	 * Returns the index of a <code>Location</code> of this <code>Grid</code>, i.e. <code>y * width + x</code>, counting 
+	 * row by row from the top left hand corner.
+	 * 
+	 * @param 	loc a <code>Location</code> of this <code>Grid</code>
+	 * @pre 	<code>loc</code> should be in this <code>Grid</code>
+	 * @return 	the index of <code>loc</code>, between 0 and <code>width * height - 1</code>
+	 * @see 	#getLocationByIndex(int)
+	 */
+	public int indexOf(Location loc) {
+		//Precondition 1: Ensure the Location is in this Grid
+		assert (loc.getTopology() == this):"Location is not in this Grid";
+		
+		return loc.getCell();
+	}
+	
+	/**
+	 * Returns the number of steps it takes to get from one <code>Location</code> of this <code>Grid</code> to another, 
+	 * moving in any of the 8 <code>CompassBearings</code>, i.e. the larger of the differences of their coordinates.
+	 * Paths that differ from the layout of this <code>Grid</code> are not taken into account.
+	 * 
+	 * @param 	from a <code>Location</code> of this <code>Grid</code>
+	 * @param 	to another <code>Location</code> of this <code>Grid</code>
+	 * @pre 	<code>from</code> and <code>to</code> should be in this <code>Grid</code>
+	 * @return 	the number of steps between <code>from</code> and <code>to</code>, 0 if they are the same
+	 */
+	public int distance(Location from, Location to) {
+		return Math.max(Math.abs(columnOf(to) - columnOf(from)), Math.abs(rowOf(to) - rowOf(from)));
+	}
+	
+	/**
+	 * Returns the <code>CompassBearing</code> of the first step on a shortest way from one <code>Location</code> of this 
+	 * <code>Grid</code> to another, which is diagonal for as long as both coordinates differ.
+	 * 
+	 * @param 	from a <code>Location</code> of this <code>Grid</code>
+	 * @param 	to another <code>Location</code> of this <code>Grid</code>
+	 * @pre 	<code>from</code> and <code>to</code> should be in this <code>Grid</code>
+	 * @return 	the <code>CompassBearing</code> to step in, or null if <code>from</code> and <code>to</code> are the same
+	 * @see 	#distance(Location, Location)
+	 */
+	public CompassBearing bearing(Location from, Location to) {
+		int dx = Integer.signum(columnOf(to) - columnOf(from));
+		int dy = Integer.signum(rowOf(to) - rowOf(from));
+		for (CompassBearing cb : CompassBearing.values()) {
+			if (cb.dx == dx && cb.dy == dy) {
+				return cb;
+			}
+		}
+		return null; //no CompassBearing stands still
+	}
+	
+	/**
+	 * Returns the neighbour of the <code>Location</code> with an index, worked out from its coordinates, without making its 
+	 * chunk if it hasn't been made yet.
+	 * 
+	 * @param 	cell the index of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>, which should be a <code>CompassBearing</code>
+	 * @return 	the <code>Location</code> next to the one at <code>cell</code> in the <code>Direction d</code>, or null if 
+	 * 			there is none because it's on the edge of this <code>Grid</code>, if <code>d</code> isn't a <code>CompassBearing</code>,
+	 * 			or if it hasn't been made yet
+	 * @see 	#indexOf(Location)
+	 * @see 	#peekLocation(int, int)
+	 */
+	@Override
+	public Location neighbourOf(int cell, Direction d) {
+		if (!hasNeighbour(cell, d)) {
+			return null;
+		}
+		CompassBearing cb = (CompassBearing) d;
+		return peekLocation(cell % width + cb.dx, cell / width + cb.dy);
+	}
+	
+	/**
+	 * Returns the neighbour of the <code>Location</code> with an index, making its chunk if it hasn't been made yet.
+	 * 
+	 * @param 	cell the index of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>, which should be a <code>CompassBearing</code>
+	 * @return 	the <code>Location</code> next to the one at <code>cell</code> in the <code>Direction d</code>, or null if 
+	 * 			there is none because it's on the edge of this <code>Grid</code>, or if <code>d</code> isn't a <code>CompassBearing</code>
+	 * @see 	#getLocationByCoordinates(int, int)
+	 */
+	@Override
+	public Location materializeNeighbour(int cell, Direction d) {
+		if (!hasNeighbour(cell, d)) {
+			return null;
+		}
+		CompassBearing cb = (CompassBearing) d;
+		return getLocationByCoordinates(cell % width + cb.dx, cell / width + cb.dy);
+	}
+	
+	/**
+	 * Returns true if the <code>Location</code> with an index has a neighbour in a <code>Direction</code>, without making the
+	 * neighbour if it hasn't been made yet.
+	 * 
+	 * @param 	cell the index of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>
+	 * @return 	true if and only if <code>d</code> is a <code>CompassBearing</code> that doesn't lead off this <code>Grid</code>
+	 */
+	@Override
+	public boolean hasNeighbour(int cell, Direction d) {
+		if (!(d instanceof CompassBearing)) {
+			return false;
+		}
+		CompassBearing cb = (CompassBearing) d;
+		int col = cell % width + cb.dx;
+		int row = cell / width + cb.dy;
+		return col >= 0 && col < width && row >= 0 && row < height; //locations on the edges have fewer neighbours
+	}
+	
+	/**
+	 * Returns a <code>TickPartitioner</code> that splits this <code>Grid</code> into horizontal stripes of (nearly) the same 
+	 * number of rows. <code>Entities</code> are in the stripe of their <code>Location</code>.
+	 * 
+	 * @param 	stripes the number of stripes
+	 * @pre 	<code>stripes</code> should be greater than 0
+	 * @return 	a <code>TickPartitioner</code> with <code>min(stripes, height)</code> partitions
+	 * @see 	{@link edu.monash.fit2099.simulator.space.World#setParallelTick(java.util.concurrent.ForkJoinPool, TickPartitioner)}
+	 */
+	public TickPartitioner<EntityInterface, Location> stripes(int stripes) {
+		//Precondition 1: Ensure there is at least one stripe
+		assert (stripes > 0):"there should be at least one stripe";
+		
+		final int partitions = Math.min(stripes, height);
+		return new TickPartitioner<EntityInterface, Location>() {
+
+			@Override
+			public int partitions() {
+				return partitions;
+			}
+
+			@Override
+			public int partitionOf(EntityInterface e, Location loc) {
+				return (int) ((long) rowOf(loc) * partitions / height);
+			}
+		};
+	}
+	
 	/**
 	 * Creates a two-way path between loc1 and loc2 in direction <code>cb</code>.  
 	 * <p>
+	 * The neighbours of the <code>Locations</code> of a <code>Grid</code> are worked out from their coordinates, so this is 
+	 * only needed for paths that differ from the layout of the <code>Grid</code>, which are stored in the <code>Locations</code>.
+	 * <p>
 	 * Sets up <code>loc2</code> as the neighbour of <code>loc1</code> in direction <code>cb</code>, and <code>loc1</code> as 
 	 * the neighbour of <code>loc2</code> in opposite direction of <code>cb</code>.
 	 * 
@@ -283,7 +628,8 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 	
 	/**
 	 * Constructor that instantiates a <code>Grid</code> and sets up neighbour relationships
-	 * between the <code>Locations</code> it contains.
+	 * between the <code>Locations</code> it contains, by making itself their <code>Topology</code>. The 
+	 * <code>Locations</code> themselves are made when they are first asked for.
 	 * 
 	 * @param 	x width of this <code>Grid</code>
 	 * @param 	y height of this <code>Grid</code>
@@ -291,6 +637,7 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 	 * 
 	 * @pre		Height <code>x</code> should be greater than 0
 	 * @pre		Width <code>y</code> should be greater than 0
+	 * @pre		The grid should have no more than <code>Integer.MAX_VALUE - 8</code> <code>Locations</code>, the most an array can hold
 	 * 
 	 * <p>
 	 * TODO: Post conditions? - Asel
@@ -301,38 +648,16 @@ public abstract class Grid<T extends Location> extends LocationContainer<T> {
 				
 		//Precondition 2 : for width
 		assert (y > 0)	:"Width y of should be greater than zero";
+		
+		//Precondition 3 : for the number of locations
+		assert ((long) x * y <= Integer.MAX_VALUE - 8):"a grid of " + x + " by " + y + " has too many locations";
 				
 		height = y;
 		width = x;
 		factory = maker;
 
-		locations = new ArrayList<List<T>>();
-
-		for (int i = 0; i < height; i++) { //for each row of the grid
-			List<T> row = new ArrayList<T>();
-			locations.add(row);
-
-			for (int j = 0; j < width; j++) {//for each column of the row
-				
-				//create and add a new location
-				T newLoc = factory.make();
-				row.add(newLoc);
-				
-				// place paths between new locations and already-created locations
-				if (i > 0) {
-					placePaths(newLoc, getLocationByCoordinates(j, i-1), CompassBearing.NORTH); //set a path to the location above 
-					if (j > 0) {
-						placePaths(newLoc, getLocationByCoordinates (j-1, i-1), CompassBearing.NORTHWEST);//place paths in a diagonal \ 
-					}
-					if (j < width-1) {
-						placePaths(newLoc, getLocationByCoordinates(j+1, i-1), CompassBearing.NORTHEAST);//place paths in a diagonal /
-					}
-				}
-				
-				if (j > 0) {
-					placePaths(newLoc, getLocationByCoordinates(j-1, i), CompassBearing.WEST); //set a path to the location on the left
-				}
-			}
-		}
+		chunksAcross = (width + CHUNK - 1) / CHUNK;
+		int chunksDown = (height + CHUNK - 1) / CHUNK;
+		locations = new AtomicReferenceArray<Object[]>(chunksAcross * chunksDown);
 	}
 }
@@ -0,0 +1,247 @@
+package edu.monash.fit2099.gridworld;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import edu.monash.fit2099.simulator.matter.EntityInterface;
+import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.space.Location;
+
+/**
+ * Answers "what is near here" for the <code>Entities</code> of an <code>EntityManager</code> on a <code>Grid</code>.
+ * <p>
+ * The <code>Grid</code> is used as a uniform bucket grid with one bucket per <code>Location</code>: a query works out the
+ * range of coordinates it covers and reads the contents of each <code>Location</code> in that range through
+ * {@link EntityManager#contentsView(Location)}, without copying them. A query therefore takes time proportional to the
+ * number of <code>Locations</code> it covers plus the number of <code>Entities</code> it finds, whatever the size of
+ * the <code>Grid</code>, instead of walking the <code>Grid</code> one neighbour at a time. <code>Locations</code> that 
+ * the <code>Grid</code> hasn't made yet hold no <code>Entities</code>, so they are skipped rather than made.
+ * <p>
+ * Distances are Chebyshev distances, i.e. the number of moves it takes to get from one <code>Location</code> to another
+ * on a <code>Grid</code> with diagonal moves.
+ *
+ * @author 	agent
+ * @param 	<E> <code>Entity</code> subclass
+ * @param 	<T> <code>Location</code> subclass
+ * @see 	{@link Grid}
+ * @see 	{@link EntityManager}
+ */
+public class SpatialQueries<E extends EntityInterface, T extends Location> {
+
+	/**The <code>Grid</code> whose <code>Locations</code> are the buckets*/
+	private Grid<T> grid;
+
+	/**The <code>EntityManager</code> that knows what is in each <code>Location</code>*/
+	private EntityManager<E, T> entityManager;
+
+	/**
+	 * Constructor for the <code>SpatialQueries</code> of the <code>Entities</code> of an <code>EntityManager</code> on a
+	 * <code>Grid</code>.
+	 *
+	 * @param 	grid the <code>Grid</code> the <code>Entities</code> are on
+	 * @param 	entityManager the <code>EntityManager</code> of the <code>Entities</code>
+	 */
+	public SpatialQueries(Grid<T> grid, EntityManager<E, T> entityManager) {
+		this.grid = grid;
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Returns the <code>Entities</code> within a Chebyshev distance of a <code>Location</code>, including the ones in it.
+	 *
+	 * @param 	centre the <code>Location</code> to search around
+	 * @param 	radius the largest distance from <code>centre</code>
+	 * @pre 	<code>centre</code> should be in the <code>Grid</code>
+	 * @pre 	<code>radius</code> should not be negative
+	 * @return 	a new list of the <code>Entities</code> found, which is empty if there are none
+	 */
+	public List<E> within(T centre, int radius) {
+		//Precondition 1: Ensure the radius is a distance
+		assert (radius >= 0):"radius should not be negative";
+
+		//no Location is further away than the size of the grid, and a larger radius would overflow the edges of the rectangle
+		int r = Math.min(radius, Math.max(grid.getWidth(), grid.getHeight()));
+		int x = grid.columnOf(centre);
+		int y = grid.rowOf(centre);
+		return inRectangle(x - r, y - r, x + r, y + r);
+	}
+
+	/**
+	 * Returns the <code>Entities</code> in a rectangle of the <code>Grid</code>. The parts of the rectangle that lie
+	 * outside the <code>Grid</code> are ignored.
+	 *
+	 * @param 	x0 the West edge of the rectangle
+	 * @param 	y0 the North edge of the rectangle
+	 * @param 	x1 the East edge of the rectangle, inclusive
+	 * @param 	y1 the South edge of the rectangle, inclusive
+	 * @return 	a new list of the <code>Entities</code> found, row by row, which is empty if there are none
+	 */
+	public List<E> inRectangle(int x0, int y0, int x1, int y1) {
+		final ArrayList<E> found = new ArrayList<E>();
+		forEachInRectangle(x0, y0, x1, y1, new Consumer<E>() {
+			@Override
+			public void accept(E e) {
+				found.add(e);
+			}
+		});
+		return found;
+	}
+
+	/**
+	 * Performs an action on each <code>Entity</code> in a rectangle of the <code>Grid</code>, without building a list of
+	 * them. The parts of the rectangle that lie outside the <code>Grid</code> are ignored.
+	 *
+	 * @param 	x0 the West edge of the rectangle
+	 * @param 	y0 the North edge of the rectangle
+	 * @param 	x1 the East edge of the rectangle, inclusive
+	 * @param 	y1 the South edge of the rectangle, inclusive
+	 * @param 	action the action to perform, which must not move <code>Entities</code>
+	 */
+	public void forEachInRectangle(int x0, int y0, int x1, int y1, Consumer<? super E> action) {
+		int left = Math.max(x0, 0);
+		int right = Math.min(x1, grid.getWidth() - 1);
+		int top = Math.max(y0, 0);
+		int bottom = Math.min(y1, grid.getHeight() - 1);
+
+		for (int y = top; y <= bottom; y++) {
+			for (int x = left; x <= right; x++) {
+				T loc = grid.peekLocation(x, y);
+				if (loc == null) {
+					continue; //never made, so nothing is there
+				}
+				List<E> contents = entityManager.contentsView(loc);
+				for (int i = 0; i < contents.size(); i++) {
+					action.accept(contents.get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the nearest <code>Entity</code> to a <code>Location</code> that matches a condition, searching anywhere on
+	 * the <code>Grid</code>.
+	 *
+	 * @param 	centre the <code>Location</code> to search from
+	 * @param 	match the condition, e.g. that the <code>Entity</code> is an enemy of the one searching
+	 * @return 	the nearest matching <code>Entity</code>, or null if there is none
+	 * @see 	#nearest(Location, int, Predicate)
+	 */
+	public E nearest(T centre, Predicate<? super E> match) {
+		return nearest(centre, Math.max(grid.getWidth(), grid.getHeight()), match);
+	}
+
+	/**
+	 * Returns the nearest <code>Entity</code> to a <code>Location</code> that matches a condition, within a Chebyshev
+	 * distance.
+	 * <p>
+	 * The search goes round <code>centre</code> in rings of growing distance and stops at the first ring with a match,
+	 * so it takes time proportional to the area within the distance of the match. Of several matching
+	 * <code>Entities</code> at the same distance, the first one found is returned.
+	 *
+	 * @param 	centre the <code>Location</code> to search from
+	 * @param 	maxRadius the largest distance to search
+	 * @param 	match the condition
+	 * @pre 	<code>centre</code> should be in the <code>Grid</code>
+	 * @return 	the nearest matching <code>Entity</code>, or null if there is none within <code>maxRadius</code>
+	 */
+	public E nearest(T centre, int maxRadius, Predicate<? super E> match) {
+		int x = grid.columnOf(centre);
+		int y = grid.rowOf(centre);
+
+		//no ring beyond the furthest corner of the grid holds anything
+		int furthest = Math.max(Math.max(x, grid.getWidth() - 1 - x), Math.max(y, grid.getHeight() - 1 - y));
+		int limit = Math.min(maxRadius, furthest);
+
+		for (int r = 0; r <= limit; r++) {
+			E found;
+			if (r == 0) {
+				found = firstIn(x, y, x, y, match);
+			}
+			else {
+				found = firstIn(x - r, y - r, x + r, y - r, match); //North side, with its corners
+				if (found == null) {
+					found = firstIn(x - r, y + r, x + r, y + r, match); //South side, with its corners
+				}
+				if (found == null) {
+					found = firstIn(x - r, y - r + 1, x - r, y + r - 1, match); //West side
+				}
+				if (found == null) {
+					found = firstIn(x + r, y - r + 1, x + r, y + r - 1, match); //East side
+				}
+			}
+			if (found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the nearest of some candidate <code>Entities</code> to a <code>Location</code> that matches a condition.
+	 * <p>
+	 * This looks at the candidates only, not at the <code>Grid</code>, so when the candidates are few, e.g. the members
+	 * of a team taken from an <code>EntityIndex</code>, it is much cheaper than searching the <code>Grid</code> around
+	 * <code>centre</code>. Candidates that aren't on the map are skipped. Of several matching candidates at the same
+	 * distance, the first one is returned.
+	 *
+	 * @param 	centre the <code>Location</code> to search from
+	 * @param 	candidates the <code>Entities</code> to choose from
+	 * @param 	match the condition
+	 * @pre 	<code>centre</code> should be in the <code>Grid</code>
+	 * @return 	the nearest matching candidate, or null if there is none
+	 * @see 	{@link edu.monash.fit2099.simulator.matter.EntityIndex#get(Object)}
+	 */
+	public E nearestOf(T centre, Collection<? extends E> candidates, Predicate<? super E> match) {
+		E nearest = null;
+		int best = Integer.MAX_VALUE;
+		for (E e : candidates) {
+			T loc = entityManager.whereIs(e);
+			if (loc == null || !match.test(e)) {
+				continue;
+			}
+			int distance = grid.distance(centre, loc);
+			if (distance < best) {
+				best = distance;
+				nearest = e;
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Returns the first <code>Entity</code> in a rectangle that matches a condition. The parts of the rectangle that lie
+	 * outside the <code>Grid</code> are ignored.
+	 *
+	 * @param 	x0 the West edge of the rectangle
+	 * @param 	y0 the North edge of the rectangle
+	 * @param 	x1 the East edge of the rectangle, inclusive
+	 * @param 	y1 the South edge of the rectangle, inclusive
+	 * @param 	match the condition
+	 * @return 	the first matching <code>Entity</code>, or null if there is none
+	 */
+	private E firstIn(int x0, int y0, int x1, int y1, Predicate<? super E> match) {
+		int left = Math.max(x0, 0);
+		int right = Math.min(x1, grid.getWidth() - 1);
+		int top = Math.max(y0, 0);
+		int bottom = Math.min(y1, grid.getHeight() - 1);
+
+		for (int y = top; y <= bottom; y++) {
+			for (int x = left; x <= right; x++) {
+				T loc = grid.peekLocation(x, y);
+				if (loc == null) {
+					continue; //never made, so nothing is there
+				}
+				List<E> contents = entityManager.contentsView(loc);
+				for (int i = 0; i < contents.size(); i++) {
+					if (match.test(contents.get(i))) {
+						return contents.get(i);
+					}
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -27,6 +27,7 @@ import starwars.SWActionInterface;
  * 	And then put it back in. (ram)
  * 2013-03-07: added MessageRenderer to constructor to accommodate change in Entity (ram)
  * 2013-04-07: fixed up generics and made getActions return an ArrayList instead of an Array.
+ * 2026-10-16: Actors that wait because of a scheduled Action are now put to sleep by the Scheduler instead of being ticked
  */
 public abstract class Actor<T extends ActionInterface> extends Entity {
 
@@ -38,7 +39,12 @@ public abstract class Actor<T extends ActionInterface> extends Entity {
 	/**The command set of this <code>Actor</code>, i.e. a set of <code>Actions</code> of this <code>Actor</code>*/
 	protected Set<T> actions;
 	
-	/**The amount of time this <code>Actor</code> has to wait before it could <code>act</code>*/
+	/**The amount of time this <code>Actor</code> has to wait before it could <code>act</code>.
+	 * <p>
+	 * When the <code>Scheduler</code> sets the <code>waittime</code> it also takes this <code>Actor</code> out of the tick loop 
+	 * and wakes it up again when the wait is over, so the <code>waittime</code> keeps the value it was given until then.
+	 * A <code>waittime</code> set in any other way is counted down by <code>tick(Location)</code>.
+	 */
 	private int waittime;
 	
 	/**
@@ -108,6 +114,8 @@ public abstract class Actor<T extends ActionInterface> extends Entity {
 	 * <p>
 	 * This method will call the act method if this <code>Actor</code> is not waiting, else it will decrement the 
 	 * <code>waitime</code> of this <code>Actor</code> by 1 and do nothing else. 
+	 * <p>
+	 * <code>Actors</code> that the <code>Scheduler</code> has put to sleep are not ticked until they wake up.
 	 * 
 	 * TODO: Should we decrement the waittime by the tick size of the scheduler?- Asel
 	 * 
@@ -0,0 +1,271 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.Arrays;
+
+import edu.monash.fit2099.simulator.space.Location;
+
+/**
+ * The changes made to the map of an <code>EntityManager</code> since they were last published, so that whatever shows
+ * or counts the <code>Entities</code>, e.g. a renderer or a statistics gatherer, can bring itself up to date by looking
+ * at what has changed instead of at the whole map.
+ * <p>
+ * Each change has a kind, the <code>Entity</code> it happened to, and the <code>Location</code> the <code>Entity</code>
+ * was in before and after it:
+ * <ul>
+ * 	<li><code>ADDED</code>: the <code>Entity</code> was put on the map, so it has no <code>from</code></li>
+ * 	<li><code>MOVED</code>: the <code>Entity</code> moved from <code>from</code> to <code>to</code></li>
+ * 	<li><code>REMOVED</code>: the <code>Entity</code> was taken off the map, so it has no <code>to</code></li>
+ * 	<li><code>CHANGED</code>: something else about the <code>Entity</code>, e.g. its hitpoints, changed where it stands,
+ * 		so <code>from</code> and <code>to</code> are the same</li>
+ * </ul>
+ * The log is kept compact: moves of the same <code>Entity</code> that follow each other are merged into one move, a move
+ * that follows the <code>Entity</code> being added changes where it was added, and a change that follows another change
+ * or the <code>Entity</code> being added is dropped, since the <code>Entity</code> is read as it is now anyway. Otherwise
+ * the changes are kept in the order in which they were made.
+ * <p>
+ * The changes are kept in arrays that grow as needed and are reused after each batch. The last change of each 
+ * <code>Entity</code>, which merging needs, is found by the id the <code>EntityManager</code> gives the <code>Entity</code>,
+ * so that logging a change doesn't allocate.
+ *
+ * @author 	agent
+ * @param 	<E> the type of the <code>Entities</code>
+ * @param 	<L> the type of the <code>Locations</code>
+ * @see 	{@link EntityManager#addChangeListener(ChangeLog.Listener)}
+ * @see 	{@link EntityManager#publishChanges()}
+ */
+public final class ChangeLog<E extends EntityInterface, L extends Location> {
+
+	/**
+	 * Interface for the consumers of the changes to the map of an <code>EntityManager</code>.
+	 *
+	 * @param 	<E> the type of the <code>Entities</code>
+	 * @param 	<L> the type of the <code>Locations</code>
+	 */
+	public interface Listener<E extends EntityInterface, L extends Location> {
+
+		/**
+		 * Called with the changes made since they were last published.
+		 * <p>
+		 * The log is only valid during the call, since it is cleared and reused afterwards, and the listener must not change
+		 * the map while it reads it. Since changes are merged, a listener that also reads the map between calls, e.g. to
+		 * draw it, must first catch up by calling <code>publishChanges()</code>.
+		 *
+		 * @param 	changes the changes, in the order in which they were made
+		 */
+		public abstract void changesMade(ChangeLog<E, L> changes);
+	}
+
+	/**An <code>Entity</code> was put on the map*/
+	public static final int ADDED = 0;
+
+	/**An <code>Entity</code> moved from one <code>Location</code> to another*/
+	public static final int MOVED = 1;
+
+	/**An <code>Entity</code> was taken off the map*/
+	public static final int REMOVED = 2;
+
+	/**Something other than the <code>Location</code> of an <code>Entity</code> changed*/
+	public static final int CHANGED = 3;
+
+	/**The kind of each change*/
+	private int[] kinds;
+
+	/**The <code>Entity</code> of each change*/
+	private Object[] entities;
+
+	/**The <code>Location</code> before each change, or null*/
+	private Object[] froms;
+
+	/**The <code>Location</code> after each change, or null*/
+	private Object[] tos;
+
+	/**The id of the <code>Entity</code> of each change*/
+	private int[] ids;
+
+	/**The number of changes*/
+	private int size;
+
+	/**The index of the last change in this batch of the <code>Entity</code> with each id, or -1 if it has none*/
+	private int[] lastChange;
+
+	/**
+	 * Constructor for an empty <code>ChangeLog</code>.
+	 */
+	ChangeLog() {
+		kinds = new int[16];
+		entities = new Object[16];
+		froms = new Object[16];
+		tos = new Object[16];
+		ids = new int[16];
+		size = 0;
+		lastChange = new int[16];
+		Arrays.fill(lastChange, -1);
+	}
+
+	/**
+	 * Logs that an <code>Entity</code> was put on the map.
+	 *
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @param 	to the <code>Location</code> it was put in
+	 */
+	void added(int id, E e, L to) {
+		add(ADDED, id, e, null, to);
+	}
+
+	/**
+	 * Logs that an <code>Entity</code> moved. If it was added or moved by the last change logged for it, that change is
+	 * made to end up in <code>to</code> instead.
+	 *
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @param 	from the <code>Location</code> it left
+	 * @param 	to the <code>Location</code> it moved to
+	 */
+	void moved(int id, E e, L from, L to) {
+		int last = lastChangeOf(id, e);
+		if (last >= 0 && (kinds[last] == MOVED || kinds[last] == ADDED)) {
+			tos[last] = to;
+			return;
+		}
+		add(MOVED, id, e, from, to);
+	}
+
+	/**
+	 * Logs that an <code>Entity</code> was taken off the map.
+	 *
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @param 	from the <code>Location</code> it was in
+	 */
+	void removed(int id, E e, L from) {
+		add(REMOVED, id, e, from, null);
+	}
+
+	/**
+	 * Logs that something other than the <code>Location</code> of an <code>Entity</code> changed. This is dropped if the
+	 * last change logged for it was a change of the same kind, or it being added.
+	 *
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @param 	at the <code>Location</code> it is in
+	 */
+	void changed(int id, E e, L at) {
+		int last = lastChangeOf(id, e);
+		if (last >= 0 && (kinds[last] == CHANGED || kinds[last] == ADDED)) {
+			return;
+		}
+		add(CHANGED, id, e, at, at);
+	}
+
+	/**
+	 * Returns the index of the last change of an <code>Entity</code> in this batch.
+	 *
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the index of the last change of <code>e</code>, or -1 if it has none
+	 */
+	private int lastChangeOf(int id, E e) {
+		if (id >= lastChange.length) {
+			return -1;
+		}
+		int last = lastChange[id];
+		return last >= 0 && entities[last] == e ? last : -1; //the id may have been given up by an Entity removed in this batch
+	}
+
+	/**
+	 * Adds a change to the end of this batch.
+	 *
+	 * @param 	kind the kind of change
+	 * @param 	id the id of the <code>Entity</code> in the <code>EntityManager</code>
+	 * @param 	e the <code>Entity</code>
+	 * @param 	from the <code>Location</code> before the change, or null
+	 * @param 	to the <code>Location</code> after the change, or null
+	 */
+	private void add(int kind, int id, E e, L from, L to) {
+		if (size == kinds.length) {
+			kinds = Arrays.copyOf(kinds, size * 2);
+			entities = Arrays.copyOf(entities, size * 2);
+			froms = Arrays.copyOf(froms, size * 2);
+			tos = Arrays.copyOf(tos, size * 2);
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+		if (id >= lastChange.length) {
+			int length = lastChange.length;
+			lastChange = Arrays.copyOf(lastChange, Math.max(id + 1, length * 2));
+			Arrays.fill(lastChange, length, lastChange.length, -1);
+		}
+		kinds[size] = kind;
+		entities[size] = e;
+		froms[size] = from;
+		tos[size] = to;
+		ids[size] = id;
+		lastChange[id] = size;
+		size++;
+	}
+
+	/**
+	 * Returns the number of changes.
+	 *
+	 * @return 	the number of changes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the kind of a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	<code>ADDED</code>, <code>MOVED</code>, <code>REMOVED</code> or <code>CHANGED</code>
+	 */
+	public int kind(int i) {
+		return kinds[i];
+	}
+
+	/**
+	 * Returns the <code>Entity</code> of a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	the <code>Entity</code> that changed
+	 */
+	@SuppressWarnings("unchecked")
+	public E entity(int i) {
+		return (E) entities[i]; //only Es are logged
+	}
+
+	/**
+	 * Returns the <code>Location</code> an <code>Entity</code> was in before a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	the <code>Location</code> before the change, or null if the change is <code>ADDED</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public L from(int i) {
+		return (L) froms[i]; //only Ls are logged
+	}
+
+	/**
+	 * Returns the <code>Location</code> an <code>Entity</code> was in after a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	the <code>Location</code> after the change, or null if the change is <code>REMOVED</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public L to(int i) {
+		return (L) tos[i]; //only Ls are logged
+	}
+
+	/**
+	 * Forgets the changes, once they have been published.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			lastChange[ids[i]] = -1; //only the ids that were logged, so clearing costs as much as the batch
+		}
+		Arrays.fill(entities, 0, size, null);
+		Arrays.fill(froms, 0, size, null);
+		Arrays.fill(tos, 0, size, null);
+		size = 0;
+	}
+}
@@ -24,6 +24,10 @@ import edu.monash.fit2099.simulator.userInterface.MessageRenderer;
  * 2013-03-07: made MessageRenderer a compulsory part of the constructor (ram)
  * 2013-03-07: removed EntityInterface to see if it's really necessary (ram)
  * 2013-03-09: made constructor instantiate affordances (ram)
+ * 2026-10-16: say(String) goes through TickEffects so that it can be held back in a parallel tick
+ * 2026-10-16: An Entity carries its id in the EntityTable of its EntityManager
+ * 2026-10-16: The array of Affordances is cached, and the EntityTable is told when the Affordances change
+ * 2026-10-16: say(String) only makes a Runnable while the effects of a parallel tick are being recorded
  */
 
 public abstract class Entity implements EntityInterface {
@@ -37,6 +41,11 @@ public abstract class Entity implements EntityInterface {
 	 */
 	private Set<Affordance> affordances;
 	
+	/**
+	 * The <code>affordances</code> as an array, or null if they have changed since it was made
+	 */
+	private Affordance[] affordanceArray = null;
+	
 	/**
 	 * <code>MessageRenderer</code> that allows this <code>Entity</code> to display messages
 	 */
@@ -53,6 +62,16 @@ public abstract class Entity implements EntityInterface {
 	 * <code>longDescriptions</code> usually provide more information than the <code>shortDescriptions</code>.
 	 */
 	protected String longDescription;
+	
+	/**
+	 * The id of this <code>Entity</code> in <code>table</code>, or -1 if it hasn't got one
+	 */
+	int id = -1;
+	
+	/**
+	 * The <code>EntityTable</code> that gave this <code>Entity</code> its <code>id</code>, or null
+	 */
+	EntityTable<?, ?> table = null;
 
 
 	// Automatically generated getters and setters for description fields
@@ -126,8 +145,19 @@ public abstract class Entity implements EntityInterface {
 	 * @see edu.monash.fit2024.simulator.EntityInterface#say(java.lang.String)
 	 */
 	@Override
-	public void say(String message) {
-		messageRenderer.render(message);
+	public void say(final String message) {
+		if (!TickEffects.isRecording()) {
+			messageRenderer.render(message); //no need for a Runnable
+			return;
+		}
+		
+		//held back while Entities are ticked in parallel, so that messages come out in order
+		TickEffects.run(new Runnable() {
+			@Override
+			public void run() {
+				messageRenderer.render(message);
+			}
+		});
 	}
 
 
@@ -136,8 +166,9 @@ public abstract class Entity implements EntityInterface {
 	 */
 	@Override
 	public void addAffordance(Affordance a) {
-		affordances.add(a);
-
+		if (affordances.add(a)) {
+			affordancesChanged();
+		}
 	}
 
 
@@ -146,8 +177,33 @@ public abstract class Entity implements EntityInterface {
 	 */
 	@Override
 	public void removeAffordance(Affordance a) {
-		affordances.remove(a);
-
+		if (affordances.remove(a)) {
+			affordancesChanged();
+		}
+	}
+	
+	/**
+	 * Forgets the array of <code>affordances</code> and tells the <code>EntityTable</code> of this <code>Entity</code>, which
+	 * caches the <code>Affordances</code> of each <code>Location</code>.
+	 */
+	private void affordancesChanged() {
+		affordanceArray = null;
+		if (table != null) {
+			table.affordancesChanged(id);
+		}
+	}
+	
+	/**
+	 * Returns the <code>affordances</code> as an array that is made once and shared until they change, so it must not be 
+	 * modified.
+	 * 
+	 * @return 	the <code>Affordances</code> of this <code>Entity</code>
+	 */
+	Affordance[] affordanceArray() {
+		if (affordanceArray == null) {
+			affordanceArray = affordances.toArray(new Affordance[affordances.size()]);
+		}
+		return affordanceArray;
 	}
 
 	/* (non-Javadoc)
@@ -155,9 +211,7 @@ public abstract class Entity implements EntityInterface {
 	 */
 	@Override
 	public Affordance[] getAffordances() {
-		Affordance[] theAffordances;
-		theAffordances = affordances.toArray(new Affordance[0]);
-		return theAffordances;
+		return affordanceArray().clone(); //a copy, since the caller may change it
 	}
 
 
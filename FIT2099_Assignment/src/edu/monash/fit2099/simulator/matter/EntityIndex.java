@@ -0,0 +1,190 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A secondary index of the <code>Entities</code> on the map of an <code>EntityManager</code>, which files each
+ * <code>Entity</code> under a number of keys, e.g. its team or its capabilities, so that finding the
+ * <code>Entities</code> with a key doesn't mean looking at every <code>Entity</code>.
+ * <p>
+ * The <code>EntityManager</code> files an <code>Entity</code> when it is put on the map and takes it out again when it is
+ * removed from the map. Moving an <code>Entity</code> doesn't change its keys. Whatever changes the keys of an
+ * <code>Entity</code> that is on the map must tell the <code>EntityManager</code>, by calling
+ * {@link EntityManager#reindex(EntityInterface)}.
+ * <p>
+ * The <code>Entities</code> with a key are kept in the order in which they were filed under it, so that runs that are
+ * replayed find them in the same order.
+ *
+ * @author 	agent
+ * @param 	<K> the type of the keys
+ * @param 	<E> the type of the <code>Entities</code>
+ * @see 	{@link EntityManager#addIndex(EntityIndex.Keys)}
+ */
+public final class EntityIndex<K, E extends EntityInterface> {
+
+	/**
+	 * Interface for working out the keys an <code>Entity</code> is filed under.
+	 *
+	 * @param 	<E> the type of the <code>Entities</code>
+	 * @param 	<K> the type of the keys
+	 */
+	public interface Keys<E, K> {
+
+		/**
+		 * Adds the keys of an <code>Entity</code> to a collection. An <code>Entity</code> may have no keys, in which case it
+		 * isn't filed.
+		 *
+		 * @param 	e the <code>Entity</code>
+		 * @param 	keys the collection to add the keys of <code>e</code> to, which is empty
+		 */
+		public abstract void keysOf(E e, Collection<K> keys);
+	}
+
+	/**Works out the keys of an <code>Entity</code>*/
+	private final Keys<? super E, K> keys;
+
+	/**The <code>Entities</code> filed under each key, in the order in which they were filed*/
+	private final HashMap<K, LinkedHashSet<E>> filed;
+
+	/**The read-only view of the <code>Entities</code> filed under each key*/
+	private final HashMap<K, Set<E>> views;
+
+	/**The keys each <code>Entity</code> is filed under*/
+	private final HashMap<E, List<K>> keysOf;
+
+	/**A list to work out keys in, reused so that reindexing an <code>Entity</code> whose keys haven't changed doesn't allocate*/
+	private final ArrayList<K> scratch;
+
+	/**
+	 * Constructor for an empty <code>EntityIndex</code>.
+	 *
+	 * @param 	keys works out the keys of an <code>Entity</code>
+	 */
+	EntityIndex(Keys<? super E, K> keys) {
+		this.keys = keys;
+		filed = new HashMap<K, LinkedHashSet<E>>();
+		views = new HashMap<K, Set<E>>();
+		keysOf = new HashMap<E, List<K>>();
+		scratch = new ArrayList<K>();
+	}
+
+	/**
+	 * Files an <code>Entity</code> under its keys. This does nothing if it is filed already.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 */
+	void add(E e) {
+		if (keysOf.containsKey(e)) {
+			return;
+		}
+		scratch.clear();
+		keys.keysOf(e, scratch);
+		file(e, new ArrayList<K>(scratch));
+	}
+
+	/**
+	 * Takes an <code>Entity</code> out of this index. This does nothing if it isn't filed.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 */
+	void remove(E e) {
+		List<K> old = keysOf.remove(e);
+		if (old != null) {
+			unfile(e, old);
+		}
+	}
+
+	/**
+	 * Files an <code>Entity</code> under its keys again, if they have changed. This does nothing if it isn't filed.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 */
+	void update(E e) {
+		List<K> old = keysOf.get(e);
+		if (old == null) {
+			return;
+		}
+		scratch.clear();
+		keys.keysOf(e, scratch);
+		if (scratch.equals(old)) {
+			return; //e keeps its place under each key
+		}
+		unfile(e, old);
+		file(e, new ArrayList<K>(scratch));
+	}
+
+	/**
+	 * Files an <code>Entity</code> under some keys.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @param 	ks the keys of <code>e</code>
+	 */
+	private void file(E e, List<K> ks) {
+		keysOf.put(e, ks);
+		for (K k : ks) {
+			LinkedHashSet<E> entities = filed.get(k);
+			if (entities == null) {
+				entities = new LinkedHashSet<E>();
+				filed.put(k, entities);
+				views.put(k, Collections.unmodifiableSet(entities));
+			}
+			entities.add(e);
+		}
+	}
+
+	/**
+	 * Takes an <code>Entity</code> out from under some keys. The sets of keys that run empty are kept, since the views of
+	 * them may have been handed out.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @param 	ks the keys <code>e</code> was filed under
+	 */
+	private void unfile(E e, List<K> ks) {
+		for (K k : ks) {
+			filed.get(k).remove(e);
+		}
+	}
+
+	/**
+	 * Returns the <code>Entities</code> on the map with a key.
+	 * <p>
+	 * The set is a read-only view that is kept up to date, so it must not be iterated over by code that puts
+	 * <code>Entities</code> on the map, takes them off it or changes their keys.
+	 *
+	 * @param 	key the key
+	 * @return 	a view of the <code>Entities</code> with the key <code>key</code>, which is empty if there are none
+	 */
+	public Set<E> get(K key) {
+		Set<E> view = views.get(key);
+		return view == null ? Collections.<E>emptySet() : view;
+	}
+
+	/**
+	 * Returns the number of <code>Entities</code> on the map with a key.
+	 *
+	 * @param 	key the key
+	 * @return 	the number of <code>Entities</code> with the key <code>key</code>
+	 */
+	public int count(K key) {
+		LinkedHashSet<E> entities = filed.get(key);
+		return entities == null ? 0 : entities.size();
+	}
+
+	/**
+	 * Returns true if an <code>Entity</code> is filed under a key.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @param 	key the key
+	 * @return 	true if and only if <code>e</code> is on the map and has the key <code>key</code>
+	 */
+	public boolean has(E e, K key) {
+		List<K> ks = keysOf.get(e);
+		return ks != null && ks.contains(key);
+	}
+}
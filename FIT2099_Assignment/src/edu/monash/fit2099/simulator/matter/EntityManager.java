@@ -1,10 +1,19 @@
 package edu.monash.fit2099.simulator.matter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 import edu.monash.fit2099.simulator.space.Direction;
 import edu.monash.fit2099.simulator.space.Location;
-import edu.monash.fit2099.simulator.util.BiMultiMap;
+import edu.monash.fit2099.simulator.util.RandomSource;
 /**
  * <code>EntityManager</code> stores an association between <code>Entities</code> and their <code>Locations</code>.
  * <p>
@@ -22,21 +31,432 @@ import edu.monash.fit2099.simulator.util.BiMultiMap;
  * 2013-03-08: made to depend on EntityInterface instead of Entity (ram)
  * 2013-04-09: added remove method (ram)
  * 2017-01-20: Extended the java doc for content method and added comments
+ * 2026-10-16: Added idleTicks and skipTicks so that the Scheduler can skip ticks in which nothing happens
+ * 2026-10-16: Added suspend and resume so that waiting Actors are left out of tick() until the Scheduler wakes them up
+ * 2026-10-16: Added a parallel tick that ticks partitions of the Entities on a ForkJoinPool
+ * 2026-10-16: Ticks can give each Entity its own stream of random numbers from a RandomSource
+ * 2026-10-16: The awake Entities are kept in a linked list of TickSlots so that suspending and resuming don't allocate
+ * 2026-10-16: Replaced the BiMultiMap with an EntityTable that stores where the Entities are by dense integer ids
+ * 2026-10-16: Added contentsView and forEachIn, which don't copy the contents of a Location
+ * 2026-10-16: Added secondary indexes of the Entities on the map, with a built-in one by class
+ * 2026-10-16: Passive Entities, which don't override tick, are left out of the awake Entities, so they cost nothing per tick
+ * 2026-10-16: Changes made while Entities are ticked are deferred and applied in one batch, so tick() no longer copies the awake Entities
+ * 2026-10-16: getActionsFor reads the Affordances of a Location from a cache that is kept until the Location changes
+ * 2026-10-16: Added takeSnapshot, which captures where the Entities are for readers on other threads
+ * 2026-10-16: Added a ChangeLog of the changes to the map, which is published to listeners so that they can catch up incrementally
+ * 2026-10-16: The last deferred change of an Entity is kept in its TickSlot instead of a map, so deferring a change doesn't allocate
+ * 2026-10-16: The parallel tick reuses its arrays and lists of effects from one tick to the next
+ * 2026-10-16: The ChangeLog finds the last change of an Entity by its id, so logging a change doesn't allocate
  */
 
 public class EntityManager<E extends EntityInterface, L extends Location> {
 	
 	/**
-	 * A Bi Multi Map that is used to store the <code>Entities</code> mapped to their <code>Locations</code> on the map.
+	 * The table that stores where the <code>Entities</code> on the map are, by their ids.
+	 * <p>
+	 * An <code>Entity</code> has an id as long as it has a <code>TickSlot</code>, i.e. while it's on the map or suspended.
+	 */
+	private EntityTable<E, L> table;
+	
+	/**
+	 * Where an <code>Entity</code> stands in <code>tick()</code>. 
+	 * <p>
+	 * An <code>Entity</code> keeps its <code>TickSlot</code> as long as it's on the map or suspended, so that suspending and 
+	 * resuming it, which happens every time an <code>Actor</code> has to wait, doesn't allocate anything. The slots of the 
+	 * awake <code>Entities</code> are linked up in the order in which they are ticked.
+	 * <p>
+	 * <code>Entities</code> that use the <code>tick</code> of <code>Entity</code>, which does nothing, are passive and are 
+	 * never linked up, so that items lying around on the map cost nothing per tick. An <code>Entity</code> opts in to being
+	 * ticked by overriding <code>tick</code>.
+	 */
+	private static final class TickSlot<E> {
+		
+		/**The <code>Entity</code> of this slot*/
+		private E entity;
+		
+		/**The id of the <code>Entity</code> in the <code>table</code>*/
+		private int id;
+		
+		/**The previous and next awake slot, if this slot is <code>linked</code>*/
+		private TickSlot<E> prev, next;
+		
+		/**True if the <code>Entity</code> is awake, i.e. on the map, not suspended and not passive*/
+		private boolean linked = false;
+		
+		/**True if the <code>Entity</code> does nothing on a tick, so that it is never awake*/
+		private final boolean passive;
+		
+		/**True if the <code>Entity</code> is on the map*/
+		private boolean onMap = false;
+		
+		/**True if the <code>Entity</code> is suspended*/
+		private boolean suspended = false;
+		
+		/**True if changes of the <code>Entity</code> have been deferred, which <code>willBeOnMap</code> and <code>willBeSuspended</code> add up*/
+		private boolean deferred = false;
+		
+		/**Whether the <code>Entity</code> will be on the map and suspended once the deferred changes are applied*/
+		private boolean willBeOnMap, willBeSuspended;
+		
+		/**The index of the last deferred change of the <code>Entity</code> in the <code>mutations</code>, if it is <code>deferred</code>*/
+		private int lastMutation;
+		
+		/**The stream of random numbers of the <code>Entity</code>, split off <code>source</code> the first time it was ticked*/
+		private SplittableRandom random = null;
+		
+		/**The <code>RandomSource</code> that <code>random</code> was split off*/
+		private RandomSource source = null;
+		
+		private TickSlot(E entity, int id) {
+			this.entity = entity;
+			this.id = id;
+			this.passive = tickDeclarer.get(entity.getClass()) == Entity.class;
+		}
+	}
+	
+	/**
+	 * The <code>TickSlots</code> of the <code>Entities</code> that are on the map or suspended, by id
+	 */
+	private ArrayList<TickSlot<E>> slots;
+	
+	/**
+	 * The first and last of the awake <code>Entities</code>, i.e. those on the map that aren't suspended or passive, in the order
+	 * in which they are ticked
+	 */
+	private TickSlot<E> head, tail;
+	
+	/**The number of awake <code>Entities</code>*/
+	private int awake = 0;
+	
+	/**
+	 * Reusable list of the awake slots as they were at the start of a parallel tick, which needs them by position to split 
+	 * them into partitions. A sequential tick walks the linked slots instead, since it defers the changes made meanwhile.
+	 */
+	private ArrayList<TickSlot<E>> tickList;
+	
+	/**
+	 * Reusable arrays of a parallel tick, by position in the <code>tickList</code>: where each <code>Entity</code> was at the
+	 * start of the tick, the partition it is in and its stream of random numbers. They grow as needed.
+	 */
+	private Object[] tickLocations = new Object[0];
+	private int[] tickPartitions = new int[0];
+	private SplittableRandom[] tickStreams = new SplittableRandom[0];
+	
+	/**
+	 * Reusable lists of the effects each <code>Entity</code> records in a parallel tick, by position in the <code>tickList</code>
+	 */
+	private ArrayList<ArrayList<Runnable>> tickEffects;
+	
+	/**
+	 * Reusable arrays that lay the partitions of a parallel tick out one after the other: where each partition starts in 
+	 * <code>partitionMembers</code>, where its next member goes while they are laid out, and the positions of the members
+	 * in the <code>tickList</code>
 	 */
-	private BiMultiMap<E, L> storage;
+	private int[] partitionStart = new int[0], partitionNext = new int[0], partitionMembers = new int[0];
+	
+	/**
+	 * Remembers, for each class of <code>Entity</code>, the class that declares the <code>tick</code> method it uses.
+	 * <p>
+	 * <code>Entities</code> that use the <code>tick</code> of <code>Entity</code> do nothing on a tick, and <code>Actors</code> that use the
+	 * <code>tick</code> of <code>Actor</code> do nothing but count down their <code>waittime</code> until they can act.
+	 */
+	private static final ClassValue<Class<?>> tickDeclarer = new ClassValue<Class<?>>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			try {
+				return type.getMethod("tick", Location.class).getDeclaringClass();
+			} catch (NoSuchMethodException e) {
+				return type; //can't happen for an EntityInterface, but assume the worst
+			}
+		}
+	};
+	
+	/**
+	 * Remembers, for each class of <code>Entity</code>, the class itself and its superclasses, up to but not including
+	 * <code>Object</code>.
+	 */
+	private static final ClassValue<List<Class<?>>> lineage = new ClassValue<List<Class<?>>>() {
+		@Override
+		protected List<Class<?>> computeValue(Class<?> type) {
+			ArrayList<Class<?>> classes = new ArrayList<Class<?>>();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				classes.add(c);
+			}
+			return Collections.unmodifiableList(classes);
+		}
+	};
+	
+	/**The secondary indexes of the <code>Entities</code> on the map, which are kept up to date as they enter and leave it*/
+	private ArrayList<EntityIndex<?, E>> indexes;
+	
+	/**The <code>Entities</code> on the map by their class and each of its superclasses*/
+	private EntityIndex<Class<?>, E> classes;
+	
+	/**The changes to the map since they were last published, which are only logged while there are listeners*/
+	private ChangeLog<E, L> changes;
+	
+	/**The consumers of the changes to the map*/
+	private ArrayList<ChangeLog.Listener<E, L>> changeListeners;
 	
 	/**
 	 * Constructor for the <code>EntityManager</code>. 
-	 * This method initializes the Bi Multi Map for storage of <code>Entities</code> on the map.
+	 * This method initializes the table for storage of <code>Entities</code> on the map.
 	 */
 	public EntityManager() {
-		storage = new BiMultiMap<E, L>();
+		table = new EntityTable<E, L>();
+		slots = new ArrayList<TickSlot<E>>();
+		head = null;
+		tail = null;
+		tickList = new ArrayList<TickSlot<E>>();
+		tickEffects = new ArrayList<ArrayList<Runnable>>();
+		mutations = new MutationBuffer<E, L>();
+		deferredSlots = new ArrayList<TickSlot<E>>();
+		indexes = new ArrayList<EntityIndex<?, E>>();
+		changes = new ChangeLog<E, L>();
+		changeListeners = new ArrayList<ChangeLog.Listener<E, L>>();
+		classes = addIndex(new EntityIndex.Keys<E, Class<?>>() {
+			@Override
+			public void keysOf(E e, Collection<Class<?>> keys) {
+				keys.addAll(lineage.get(e.getClass()));
+			}
+		});
+	}
+	
+	/**
+	 * Adds a secondary index of the <code>Entities</code> on the map, e.g. by team, and files the <code>Entities</code> 
+	 * that are on the map already.
+	 * <p>
+	 * Whatever changes the keys of an <code>Entity</code> on the map must call <code>reindex</code> afterwards.
+	 * 
+	 * @param 	keys works out the keys of an <code>Entity</code>
+	 * @return 	the new index
+	 * @see 	#reindex(EntityInterface)
+	 */
+	public <K> EntityIndex<K, E> addIndex(EntityIndex.Keys<? super E, K> keys) {
+		EntityIndex<K, E> index = new EntityIndex<K, E>(keys);
+		for (TickSlot<E> slot : slots) {
+			if (slot != null && slot.onMap) {
+				index.add(slot.entity);
+			}
+		}
+		indexes.add(index);
+		return index;
+	}
+	
+	/**
+	 * Files an <code>Entity</code> under its keys again in every secondary index, after its keys have changed, e.g. because
+	 * it has joined another team. This does nothing if <code>e</code> isn't on the map.
+	 * 
+	 * @param 	e the <code>Entity</code> whose keys have changed
+	 * @see 	#addIndex(EntityIndex.Keys)
+	 */
+	public void reindex(EntityInterface e) {
+		TickSlot<E> slot = findSlot(e);
+		if (slot == null || !slot.onMap) {
+			return;
+		}
+		for (int i = 0; i < indexes.size(); i++) {
+			indexes.get(i).update(slot.entity);
+		}
+	}
+	
+	/**
+	 * Adds a consumer of the changes to the map, e.g. a renderer that redraws only the <code>Locations</code> that have 
+	 * changed. From now on, the changes are logged and handed to every listener each time <code>publishChanges()</code> is
+	 * called. The listener should read the map as it is when it is added, since the changes made before aren't logged.
+	 * 
+	 * @param 	listener the consumer of the changes
+	 * @see 	#publishChanges()
+	 * @see 	#changed(EntityInterface)
+	 */
+	public void addChangeListener(ChangeLog.Listener<E, L> listener) {
+		changeListeners.add(listener);
+	}
+	
+	/**
+	 * Logs that something about an <code>Entity</code> other than its <code>Location</code> has changed, e.g. its 
+	 * hitpoints, so that the listeners to the changes to the map hear of it. This does nothing if <code>e</code> isn't on 
+	 * the map.
+	 * 
+	 * @param 	e the <code>Entity</code> that has changed
+	 * @see 	#addChangeListener(ChangeLog.Listener)
+	 */
+	public void changed(EntityInterface e) {
+		if (changeListeners.isEmpty()) {
+			return;
+		}
+		TickSlot<E> slot = findSlot(e);
+		if (slot != null && slot.onMap) {
+			changes.changed(slot.id, slot.entity, table.locationOf(slot.id));
+		}
+	}
+	
+	/**
+	 * Hands the changes made to the map since this was last called to every listener, in the order in which they were
+	 * made, and starts a new log. This is meant to be called once per tick, once the <code>Actions</code> of the tick have
+	 * been executed, so that the listeners take time proportional to the number of changes in a tick rather than to the
+	 * size of the map. Changes that are still being deferred aren't published until they are applied.
+	 * 
+	 * @see 	#addChangeListener(ChangeLog.Listener)
+	 */
+	public void publishChanges() {
+		if (changes.size() == 0) {
+			return;
+		}
+		for (int i = 0; i < changeListeners.size(); i++) {
+			changeListeners.get(i).changesMade(changes);
+		}
+		changes.clear();
+	}
+	
+	/**
+	 * Returns the <code>Entities</code> on the map that are instances of a class, without looking at the others.
+	 * <p>
+	 * The set is a read-only view that is kept up to date, so it must not be iterated over by code that puts 
+	 * <code>Entities</code> on the map or takes them off it.
+	 * 
+	 * @param 	type the class, e.g. <code>SWActor.class</code>
+	 * @pre 	<code>type</code> should be a class, not an interface
+	 * @return 	a view of the <code>Entities</code> on the map that are instances of <code>type</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Set<T> instancesOf(Class<T> type) {
+		//Precondition 1: Ensure the type is indexed
+		assert (!type.isInterface()):"Entities are only indexed by class, not by interface";
+		
+		return (Set<T>) classes.get(type); //everything filed under type is an instance of it
+	}
+	
+	/**
+	 * Returns the <code>TickSlot</code> of an <code>Entity</code>, giving it one if it hasn't got one.
+	 * 
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the <code>TickSlot</code> of <code>e</code>
+	 */
+	@SuppressWarnings("unchecked")
+	private TickSlot<E> slotOf(EntityInterface e) {
+		int id = table.register(e);
+		while (slots.size() <= id) {
+			slots.add(null);
+		}
+		TickSlot<E> slot = slots.get(id);
+		if (slot == null) {
+			slot = new TickSlot<E>((E) e, id); //only ticked once it's on the map, where it has to be an E
+			slots.set(id, slot);
+		}
+		return slot;
+	}
+	
+	/**
+	 * Returns the <code>TickSlot</code> of an <code>Entity</code>.
+	 * 
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the <code>TickSlot</code> of <code>e</code>, or null if <code>e</code> is neither on the map nor suspended
+	 */
+	private TickSlot<E> findSlot(EntityInterface e) {
+		int id = table.idOf(e);
+		return id < 0 ? null : slots.get(id);
+	}
+	
+	/**
+	 * Forgets the <code>TickSlot</code> of an <code>Entity</code> that is neither on the map nor suspended any more, and 
+	 * releases its id.
+	 * 
+	 * @param 	slot the slot to forget
+	 */
+	private void drop(TickSlot<E> slot) {
+		slots.set(slot.id, null);
+		table.release(slot.id);
+	}
+	
+	/**
+	 * Adds a slot to the end of the awake <code>Entities</code>.
+	 * 
+	 * @param 	slot the slot to add
+	 * @pre 	<code>slot</code> is not <code>linked</code>
+	 */
+	private void link(TickSlot<E> slot) {
+		slot.prev = tail;
+		slot.next = null;
+		if (tail != null) {
+			tail.next = slot;
+		}
+		else {
+			head = slot;
+		}
+		tail = slot;
+		slot.linked = true;
+		awake++;
+	}
+	
+	/**
+	 * Takes a slot out of the awake <code>Entities</code>. This does nothing if the slot isn't <code>linked</code>.
+	 * 
+	 * @param 	slot the slot to take out
+	 */
+	private void unlink(TickSlot<E> slot) {
+		if (!slot.linked) {
+			return;
+		}
+		if (slot.prev != null) {
+			slot.prev.next = slot.next;
+		}
+		else {
+			head = slot.next;
+		}
+		if (slot.next != null) {
+			slot.next.prev = slot.prev;
+		}
+		else {
+			tail = slot.prev;
+		}
+		slot.prev = null;
+		slot.next = null;
+		slot.linked = false;
+		awake--;
+	}
+	
+	/**
+	 * The changes held back while changes are deferred
+	 */
+	private MutationBuffer<E, L> mutations;
+	
+	/**
+	 * The number of calls to <code>defer()</code> that haven't been matched by a call to <code>flush()</code> yet
+	 */
+	private int deferring = 0;
+	
+	/**
+	 * The slots whose <code>Entities</code> have deferred changes
+	 */
+	private ArrayList<TickSlot<E>> deferredSlots;
+	
+	/**
+	 * Copies the awake slots into the <code>tickList</code>, in the order in which they are ticked.
+	 */
+	private void snapshot() {
+		tickList.clear();
+		for (TickSlot<E> slot = head; slot != null; slot = slot.next) {
+			tickList.add(slot);
+		}
+	}
+	
+	/**
+	 * Returns the stream of random numbers of the <code>Entity</code> of a slot, splitting it off the source the first time.
+	 * 
+	 * @param 	slot the slot of the <code>Entity</code>
+	 * @param 	random the source of random numbers of the world, or null
+	 * @return 	the stream of the <code>Entity</code>, or null if there is no source
+	 */
+	private SplittableRandom streamOf(TickSlot<E> slot, RandomSource random) {
+		if (random == null) {
+			return null;
+		}
+		if (slot.source != random) { //first tick, or the world has been reseeded
+			slot.random = random.split();
+			slot.source = random;
+		}
+		return slot.random;
 	}
 	
 	/**
@@ -47,7 +467,7 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 * @return 	the <code>Location</code> of <code>e</code>, or null if <code>e</code> is not found on the map
 	 */
 	public L whereIs(E e) {
-		return storage.get(e);
+		return table.whereIs(e);
 	}
 	
 	/**
@@ -57,7 +477,33 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 * @param 	e the <code>Entity</code> to remove
 	 */
 	public void remove(EntityInterface e) {
-		storage.remove(e);
+		if (deferring > 0) {
+			int change = mutations.change(MutationBuffer.REMOVE, e);
+			TickSlot<E> slot = deferredSlot(e);
+			if (slot != null) {
+				slot.willBeOnMap = false;
+				slot.lastMutation = change;
+			}
+			return;
+		}
+		
+		TickSlot<E> slot = findSlot(e);
+		if (slot != null) {
+			if (slot.onMap && !changeListeners.isEmpty()) {
+				changes.removed(slot.id, slot.entity, table.locationOf(slot.id));
+			}
+			table.remove(slot.id);
+			unlink(slot);
+			if (slot.onMap) {
+				for (int i = 0; i < indexes.size(); i++) {
+					indexes.get(i).remove(slot.entity);
+				}
+			}
+			slot.onMap = false;
+			if (!slot.suspended) {
+				drop(slot); //nothing to remember about e
+			}
+		}
 	}
 	
 	/**
@@ -76,10 +522,54 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 * @return 	list of all <code>Entities</code> in <code>loc</code> or an empty list
 	 */
 	public List<E> contents(final L loc) {
-		return storage.reverseLookup(loc);
+		return table.contents(loc);
 		
 	}
 	
+	/**
+	 * Returns a read-only view of the <code>Entities</code> in the <code>Location loc</code>, without copying them. 
+	 * <p>
+	 * The view is kept up to date as <code>Entities</code> enter and leave <code>loc</code>, so it must not be iterated over
+	 * by code that may move <code>Entities</code> into or out of <code>loc</code>; such code should use 
+	 * <code>contents</code> instead. Reading the view doesn't allocate, unless it's iterated over with an 
+	 * <code>Iterator</code>, which is why rendering and the decisions of <code>Actors</code> should use it.
+	 * 
+	 * @param 	loc Location being queried
+	 * @return 	a view of all <code>Entities</code> in <code>loc</code>, which is empty if there are none
+	 * @see 	#contents(Location)
+	 * @see 	#forEachIn(Location, Consumer)
+	 */
+	public List<E> contentsView(final L loc) {
+		return table.view(loc);
+	}
+	
+	/**
+	 * Performs an action on each <code>Entity</code> in the <code>Location loc</code>, without copying the contents of 
+	 * <code>loc</code>. 
+	 * 
+	 * @param 	loc Location being visited
+	 * @param 	action the action to perform on each <code>Entity</code>. It must not move <code>Entities</code> into or out of <code>loc</code>
+	 * @see 	#contentsView(Location)
+	 */
+	public void forEachIn(final L loc, Consumer<? super E> action) {
+		table.forEachIn(loc, action);
+	}
+	
+	/**
+	 * Returns a snapshot of where the <code>Entities</code> on the map are, which doesn't change afterwards and so can be 
+	 * read on another thread, e.g. by a renderer, while the next tick runs.
+	 * <p>
+	 * Taking a snapshot doesn't copy the map: the snapshot shares the storage of this <code>EntityManager</code>, which 
+	 * copies a small chunk of it the first time the chunk changes after the snapshot. It should be taken on the thread that
+	 * ticks, between ticks. Changes that are being deferred aren't in it.
+	 * 
+	 * @return 	a snapshot of where the <code>Entities</code> are now
+	 * @see 	EntitySnapshot
+	 */
+	public EntitySnapshot<E, L> takeSnapshot() {
+		return table.snapshot();
+	}
+	
 	/**
 	 * Sets the new <code>Location</code> of <code>Entity e</code> to <code>Location loc</code>. This method will remove the 
 	 * <code>Entity e</code> from its original location.
@@ -88,20 +578,449 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 * @param loc the destination <code>Location</code>
 	 */
 	public void setLocation(E e, L loc) {
-		storage.put(e, loc);
+		if (deferring > 0) {
+			TickSlot<E> slot = deferredSlot(e);
+			if (slot != null) {
+				slot.willBeOnMap = true;
+				slot.lastMutation = mutations.move(e, loc, slot.lastMutation);
+			}
+			else {
+				mutations.move(e, loc, -1); //e hasn't been on the map yet, so its moves aren't coalesced
+			}
+			return;
+		}
+		
+		TickSlot<E> slot = slotOf(e);
+		if (!changeListeners.isEmpty()) {
+			if (slot.onMap) {
+				changes.moved(slot.id, slot.entity, table.locationOf(slot.id), loc);
+			}
+			else {
+				changes.added(slot.id, slot.entity, loc);
+			}
+		}
+		table.put(slot.id, loc);
+		if (!slot.onMap) {
+			slot.onMap = true;
+			for (int i = 0; i < indexes.size(); i++) {
+				indexes.get(i).add(slot.entity);
+			}
+		}
+		if (!slot.passive && !slot.suspended && !slot.linked) { //e keeps its place if it was already on the map
+			link(slot);
+		}
+	}
+	
+	/**
+	 * Leaves the <code>Entity e</code> out of <code>tick()</code> until it is resumed. This is used by the <code>Scheduler</code>
+	 * for <code>Actors</code> that have to wait before they can act again.
+	 * <p>
+	 * <code>e</code> stays on the map, and it stays suspended even if it is removed from the map and put back.
+	 * 
+	 * @param 	e the <code>Entity</code> to suspend
+	 * @see 	#resume(EntityInterface)
+	 */
+	public void suspend(EntityInterface e) {
+		if (deferring > 0) {
+			int change = mutations.change(MutationBuffer.SUSPEND, e);
+			TickSlot<E> slot = deferredSlot(e);
+			if (slot != null) {
+				slot.willBeSuspended = true;
+				slot.lastMutation = change;
+			}
+			return;
+		}
+		
+		TickSlot<E> slot = slotOf(e);
+		slot.suspended = true;
+		unlink(slot);
+	}
+	
+	/**
+	 * Lets a suspended <code>Entity e</code> be ticked again. This method does nothing if <code>e</code> isn't suspended.
+	 * 
+	 * @param 	e the <code>Entity</code> to resume
+	 * @see 	#suspend(EntityInterface)
+	 */
+	public void resume(EntityInterface e) {
+		if (deferring > 0) {
+			int change = mutations.change(MutationBuffer.RESUME, e);
+			TickSlot<E> slot = deferredSlot(e);
+			if (slot != null) {
+				slot.willBeSuspended = false;
+				slot.lastMutation = change;
+			}
+			return;
+		}
+		
+		TickSlot<E> slot = findSlot(e);
+		if (slot == null || !slot.suspended) {
+			return;
+		}
+		slot.suspended = false;
+		if (!slot.onMap) {
+			drop(slot);
+		}
+		else if (!slot.passive) {
+			link(slot);
+		}
 	}
 	
 
+	/**
+	 * Holds back the changes made to this <code>EntityManager</code> by <code>setLocation</code>, <code>remove</code>, 
+	 * <code>suspend</code> and <code>resume</code> until <code>flush()</code> is called, so that the <code>Entities</code> 
+	 * can be iterated over in the meantime without copying them. <code>tick()</code> defers the changes made while it ticks 
+	 * the <code>Entities</code>.
+	 * <p>
+	 * Until then, <code>whereIs</code>, <code>contents</code> and the indexes show the map as it was when the changes 
+	 * started being deferred. Calls to <code>defer()</code> may be nested, in which case the changes are applied by the
+	 * <code>flush()</code> that matches the outermost one.
+	 * 
+	 * @see 	#flush()
+	 */
+	public void defer() {
+		deferring++;
+	}
+	
+	/**
+	 * Applies the changes held back since <code>defer()</code> was called, in the order in which they were made, except that
+	 * moves of the same <code>Entity</code> that follow each other are made in one go.
+	 * 
+	 * @pre 	<code>defer()</code> should have been called more often than <code>flush()</code>
+	 * @see 	#defer()
+	 */
+	@SuppressWarnings("unchecked")
+	public void flush() {
+		//Precondition 1: Ensure there is something to flush
+		assert (deferring > 0):"flush() without defer()";
+		
+		if (--deferring > 0) {
+			return; //an outer defer() is still holding changes back
+		}
+		for (int i = 0; i < mutations.size(); i++) {
+			EntityInterface e = mutations.target(i);
+			switch (mutations.kind(i)) {
+			case MutationBuffer.MOVE:
+				setLocation((E) e, mutations.place(i));
+				break;
+			case MutationBuffer.REMOVE:
+				remove(e);
+				break;
+			case MutationBuffer.SUSPEND:
+				suspend(e);
+				break;
+			default:
+				resume(e);
+			}
+		}
+		mutations.clear();
+		for (int i = 0; i < deferredSlots.size(); i++) {
+			deferredSlots.get(i).deferred = false;
+		}
+		deferredSlots.clear();
+	}
+	
+	/**
+	 * Returns the <code>TickSlot</code> of an <code>Entity</code> a change of which is being deferred, starting to add up 
+	 * its deferred changes if it hasn't got any yet.
+	 * 
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the <code>TickSlot</code> of <code>e</code>, or null if <code>e</code> is neither on the map nor suspended
+	 */
+	private TickSlot<E> deferredSlot(EntityInterface e) {
+		TickSlot<E> slot = findSlot(e);
+		if (slot != null && !slot.deferred) {
+			slot.deferred = true;
+			slot.willBeOnMap = slot.onMap;
+			slot.willBeSuspended = slot.suspended;
+			slot.lastMutation = -1;
+			deferredSlots.add(slot);
+		}
+		return slot;
+	}
+	
+	/**
+	 * Returns true if the <code>Entity</code> of an awake slot is still to be ticked, i.e. if the changes deferred so far 
+	 * leave it on the map and awake. This is how an <code>Entity</code> that an earlier one has suspended or removed in the 
+	 * same tick is skipped.
+	 * 
+	 * @param 	slot an awake slot
+	 * @return 	true if and only if the <code>Entity</code> of <code>slot</code> is to be ticked
+	 */
+	private static boolean stillAwake(TickSlot<?> slot) {
+		return !slot.deferred || (slot.willBeOnMap && !slot.willBeSuspended);
+	}
+	
 	/**
 	 * Allow time to pass.
 	 * <p>
-	 * Tells each <code>Entity</code> in the world to update itself and/or schedule an <code>Action</code>.
+	 * Tells each <code>Entity</code> in the world that isn't suspended to update itself and/or schedule an <code>Action</code>.
+	 * Passive <code>Entities</code>, which don't override <code>tick</code>, aren't ticked at all. The cost of a tick 
+	 * therefore grows with the number of <code>Entities</code> that can act, not with the number of <code>Entities</code> 
+	 * on the map.
 	 */
 	public void tick() {
+		tick((RandomSource) null);
+	}
+	
+	/**
+	 * Allow time to pass, giving each <code>Entity</code> its own stream of random numbers while it's ticked.
+	 * <p>
+	 * The stream of an <code>Entity</code> is split off the <code>random</code> source the first time it's about to be ticked, 
+	 * in tick order, whether or not it's skipped, so that a parallel tick draws the same numbers.
+	 * <p>
+	 * Changes made while the <code>Entities</code> are ticked, e.g. <code>Actors</code> suspending themselves, are deferred 
+	 * until all of them have been ticked, so the awake <code>Entities</code> are walked as they are, without a copy.
+	 * 
+	 * @param 	random the source of random numbers of the world, or null if the <code>Entities</code> don't use one
+	 * @see 	#tick()
+	 * @see 	RandomSource#get()
+	 */
+	public void tick(RandomSource random) {
+		
+		//hold back changes until all the Entities have been ticked, so that the awake Entities can be walked without a copy
+		defer();
+		try {
+			//loop through all the Entities in the world that aren't waiting
+			for (TickSlot<E> slot = head; slot != null; slot = slot.next) {
+				SplittableRandom stream = streamOf(slot, random);
+				if (stillAwake(slot)) { //skip any Entities suspended or removed by an earlier one
+					RandomSource.enter(stream);
+					try {
+						slot.entity.tick(table.locationOf(slot.id));
+					}
+					finally {
+						RandomSource.enter(null);
+					}
+				}
+			}
+		}
+		finally {
+			flush();
+		}
+	}
+	
+	/**
+	 * Allow time to pass, ticking the <code>Entities</code> in parallel.
+	 * <p>
+	 * The <code>Entities</code> that aren't suspended are split up by the <code>partitioner</code> and each partition is 
+	 * ticked on the <code>pool</code>. While they are ticked in parallel, the <code>Entities</code> see the world as it was at
+	 * the start of the tick and the effects of their ticks are held back by <code>TickEffects</code>.
+	 * <p>
+	 * Afterwards the effects are applied one <code>Entity</code> at a time, in the same order as <code>tick()</code> ticks them,
+	 * and <code>Entities</code> in the <code>SEQUENTIAL</code> partition are ticked in their turn. This is also how conflicts are
+	 * resolved, including between <code>Entities</code> on the borders of partitions: whatever the partition, the effects of an
+	 * <code>Entity</code> ticked earlier by <code>tick()</code> come first, and the effects of an <code>Entity</code> that an 
+	 * earlier one has suspended or removed are dropped, just as <code>tick()</code> would skip it. The outcome is the same as 
+	 * <code>tick()</code> as long as ticking an <code>Entity</code> changes nothing but the <code>Entity</code> itself except 
+	 * through <code>TickEffects</code>, no <code>Entity</code> suspends or removes another one that is yet to be ticked, and 
+	 * <code>Entities</code> take their random numbers from the <code>random</code> source.
+	 * 
+	 * @param 	pool the pool to tick the partitions on
+	 * @param 	partitioner splits the <code>Entities</code> into partitions
+	 * @param 	random the source of random numbers of the world, or null if the <code>Entities</code> don't use one
+	 * @see 	#tick(RandomSource)
+	 * @see 	TickEffects
+	 */
+	@SuppressWarnings("unchecked")
+	public void tick(ForkJoinPool pool, final TickPartitioner<? super E, ? super L> partitioner, RandomSource random) {
+		
+		//take a copy of the Entities to tick, along with where they are at the start of the tick
+		snapshot();
+		final int n = tickList.size();
+		int partitions = partitioner.partitions();
+		growParallelTick(n, partitions);
+		final Object[] locations = tickLocations;
+		final int[] partition = tickPartitions;
+		final ArrayList<ArrayList<Runnable>> effects = tickEffects;
+		final SplittableRandom[] streams = tickStreams;
+		
+		int[] start = partitionStart;
+		Arrays.fill(start, 0, partitions + 1, 0);
+		for (int i = 0; i < n; i++) {
+			E e = tickList.get(i).entity;
+			L loc = table.locationOf(tickList.get(i).id);
+			locations[i] = loc;
+			partition[i] = partitioner.partitionOf(e, loc);
+			streams[i] = streamOf(tickList.get(i), random); //in the same order as a sequential tick
+			if (partition[i] != TickPartitioner.SEQUENTIAL) {
+				start[partition[i] + 1]++;
+			}
+		}
+		
+		//lay the partitions out one after the other, keeping the tick order within each partition
+		for (int p = 0; p < partitions; p++) {
+			start[p + 1] += start[p];
+		}
+		final int[] members = partitionMembers;
+		int[] next = partitionNext;
+		System.arraycopy(start, 0, next, 0, partitions + 1);
+		for (int i = 0; i < n; i++) {
+			if (partition[i] != TickPartitioner.SEQUENTIAL) {
+				members[next[partition[i]]++] = i;
+			}
+		}
+		
+		final ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (int p = 0; p < partitions; p++) {
+			final int from = start[p];
+			final int to = start[p + 1];
+			if (from == to) {
+				continue; //nobody in this partition
+			}
+			tasks.add(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					for (int m = from; m < to; m++) {
+						int i = members[m];
+						TickEffects.record(effects.get(i)); //cleared after the last tick
+						RandomSource.enter(streams[i]);
+						try {
+							tickList.get(i).entity.tick((L) locations[i]);
+						}
+						finally {
+							TickEffects.stop();
+							RandomSource.enter(null);
+						}
+					}
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				ForkJoinTask.invokeAll(tasks);
+			}
+		});
+		
+		//apply the effects in the order of a sequential tick, holding back changes just as a sequential tick does
+		defer();
+		try {
+			for (int i = 0; i < n; i++) {
+				E e = tickList.get(i).entity;
+				if (!stillAwake(tickList.get(i))) {
+					continue; //suspended or removed by an earlier Entity, so a sequential tick would have skipped it
+				}
+				if (partition[i] == TickPartitioner.SEQUENTIAL) {
+					RandomSource.enter(streams[i]);
+					try {
+						e.tick(table.locationOf(tickList.get(i).id));
+					}
+					finally {
+						RandomSource.enter(null);
+					}
+				}
+				else {
+					ArrayList<Runnable> recorded = effects.get(i);
+					for (int r = 0; r < recorded.size(); r++) {
+						recorded.get(r).run();
+					}
+				}
+			}
+		}
+		finally {
+			flush();
+			
+			//let go of what this tick held on to, keeping the arrays and lists for the next one
+			for (int i = 0; i < n; i++) {
+				locations[i] = null;
+				streams[i] = null;
+				effects.get(i).clear();
+			}
+			tickList.clear();
+		}
+	}
+	
+	/**
+	 * Makes sure the reusable arrays and lists of a parallel tick are large enough.
+	 * 
+	 * @param 	n the number of <code>Entities</code> to tick
+	 * @param 	partitions the number of partitions
+	 */
+	private void growParallelTick(int n, int partitions) {
+		if (tickLocations.length < n) {
+			int capacity = Math.max(n, tickLocations.length * 2);
+			tickLocations = new Object[capacity];
+			tickPartitions = new int[capacity];
+			tickStreams = new SplittableRandom[capacity];
+			partitionMembers = new int[capacity];
+		}
+		while (tickEffects.size() < n) {
+			tickEffects.add(new ArrayList<Runnable>());
+		}
+		if (partitionStart.length < partitions + 1) {
+			partitionStart = new int[partitions + 1];
+			partitionNext = new int[partitions + 1];
+		}
+	}
+	
+	/**
+	 * Returns the number of <code>Entities</code> that <code>tick()</code> ticks, i.e. that are on the map, not suspended 
+	 * and not passive.
+	 * 
+	 * @return 	the number of awake <code>Entities</code>
+	 */
+	public int getAwakeCount() {
+		return awake;
+	}
+	
+	/**
+	 * Returns the number of ticks that can pass before any <code>Entity</code> in the map does something on a tick.
+	 * <p>
+	 * <code>Entities</code> that don't override <code>tick</code> never do anything, waiting <code>Actors</code> do nothing until
+	 * their <code>waittime</code> runs out, and any other <code>Entity</code> may do something on every tick. Suspended 
+	 * <code>Entities</code> aren't ticked at all, so they are left out.
+	 * 
+	 * @return 	the number of ticks in which nothing but counting down <code>waittimes</code> happens, 
+	 * 			or <code>Integer.MAX_VALUE</code> if no <code>Entity</code> will ever do anything on a tick
+	 * @see 	Actor#getWaittime()
+	 */
+	public int idleTicks() {
+		int idle = Integer.MAX_VALUE;
 		
-		//loop through all the Entities in the world
-		for (E e: storage.keySet()) {
-			e.tick(storage.get(e));
+		for (TickSlot<E> slot = head; slot != null; slot = slot.next) {
+			E e = slot.entity;
+			Class<?> declarer = tickDeclarer.get(e.getClass());
+			
+			if (declarer == Actor.class) { //a plain Actor only acts once it's done waiting
+				idle = Math.min(idle, ((Actor<?>) e).getWaittime());
+			}
+			else if (declarer != Entity.class) { //we can't tell what this Entity does on a tick
+				idle = 0;
+			}
+			
+			if (idle == 0) {
+				break; //can't get any smaller
+			}
+		}
+		return idle;
+	}
+	
+	/**
+	 * Lets a number of ticks pass in one go, which must all be ticks in which nothing happens.
+	 * <p>
+	 * This has the same effect as calling <code>tick()</code> <code>ticks</code> times, i.e. it counts down the 
+	 * <code>waittime</code> of every <code>Actor</code> that isn't suspended by <code>ticks</code>.
+	 * 
+	 * @param 	ticks the number of ticks to skip
+	 * @pre 	<code>ticks</code> should not be greater than <code>idleTicks()</code>
+	 * @see 	#idleTicks()
+	 */
+	public void skipTicks(int ticks) {
+		//Precondition 1: Ensure nothing would have happened in the skipped ticks
+		assert (ticks <= idleTicks()):"can't skip ticks in which Entities would act";
+		
+		for (TickSlot<E> slot = head; slot != null; slot = slot.next) {
+			E e = slot.entity;
+			if (e instanceof Actor) {
+				Actor<?> a = (Actor<?>) e;
+				a.setWaittime(a.getWaittime() - ticks);
+			}
 		}
 	}
 	
@@ -125,6 +1044,10 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 * This includes <code>Actions</code> intrinsic to the <code>Actor</code> as well as <code>Affordances</code> 
 	 * belonging to other <code>Entities</code> in the same <code>Location</code>.  No checking is done as to
 	 * whether the <code>Actor</code> can actually perform the <code>Actions</code>.</p>
+	 * <p>
+	 * The <code>Affordances</code> of each <code>Location</code> are collected once and cached until an <code>Entity</code>
+	 * enters or leaves it or an <code>Entity</code> in it gains or loses an <code>Affordance</code>, so asking again for the
+	 * same <code>Location</code> only copies two arrays.</p>
 	 * 
 	 * @author 	ram
 	 * @param 	a the <code>Actor</code> for whom the the list of <code>Actions</code> is required
@@ -142,24 +1065,12 @@ public class EntityManager<E extends EntityInterface, L extends Location> {
 	 */
 	@SuppressWarnings("unchecked")
 	public <A extends ActionInterface> List<A> getActionsFor(Actor<A> a) {
-		ArrayList<A> theActions = new ArrayList<A>();
-		
 		//Actions for the Actor a
-		for (A ac: a.getActions()) {
-			theActions.add(ac);
-		}
-		
+		ArrayList<A> theActions = new ArrayList<A>(a.getActions());
 
 		L loc = whereIs((E) a);
-		//Affordances of the Entities in the same location
-		for (E e: contents(loc)) {
-			if (e != a) { //don't add the affordances if they belong to the actor itself
-				for (Affordance aff: e.getAffordances()) {
-					theActions.add((A) aff);
-				}
-			}
-		}
-		
+		//Affordances of the Entities in the same location, except the actor's own
+		table.addAffordances(loc, a, theActions);
 		
 		return theActions;
 	}
@@ -0,0 +1,142 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import edu.monash.fit2099.simulator.space.Location;
+
+/**
+ * Where the <code>Entities</code> of an <code>EntityManager</code> were at the moment a snapshot was taken.
+ * <p>
+ * A snapshot shares the chunks of its <code>EntityManager</code>'s table that haven't changed since, instead of copying
+ * them, so taking one is cheap enough to do at the end of every tick. Nothing in a snapshot changes once it has been
+ * taken, so it can be handed to another thread, e.g. a renderer or a thread gathering statistics, and read there
+ * without locks while the next tick runs.
+ * <p>
+ * Only where the <code>Entities</code> are is captured. The <code>Entities</code> themselves are the live objects, so
+ * a reader on another thread should only read what doesn't change while they are ticked, such as their symbols.
+ * <p>
+ * The first call to <code>whereIs</code> or <code>contents</code> indexes the snapshot, which takes time proportional to
+ * the number of <code>Entities</code>; that work is done by the reader, not by the thread that ticks.
+ *
+ * @author 	agent
+ * @param 	<E> the type of the <code>Entities</code>
+ * @param 	<L> the type of the <code>Locations</code>
+ * @see 	{@link EntityManager#takeSnapshot()}
+ */
+public final class EntitySnapshot<E extends EntityInterface, L extends Location> {
+
+	/**The chunks of the <code>Entities</code> by id, as they were*/
+	private final Object[][] entities;
+
+	/**The chunks of the cells of the <code>Entities</code> by id, as they were*/
+	private final int[][] cellOf;
+
+	/**The <code>Location</code> of each cell*/
+	private final Object[] cells;
+
+	/**The number of ids that had been handed out*/
+	private final int ids;
+
+	/**The <code>Location</code> of each <code>Entity</code> on the map, made the first time it's asked for*/
+	private IdentityHashMap<EntityInterface, L> locations = null;
+
+	/**The <code>Entities</code> in each <code>Location</code>, made the first time it's asked for*/
+	private HashMap<Location, List<E>> contents = null;
+
+	/**
+	 * Constructor for a snapshot of an <code>EntityTable</code>.
+	 *
+	 * @param 	entities the chunks of <code>Entities</code>, which must not change any more
+	 * @param 	cellOf the chunks of cells, which must not change any more
+	 * @param 	cells the <code>Locations</code> of the cells
+	 * @param 	ids the number of ids handed out
+	 */
+	EntitySnapshot(Object[][] entities, int[][] cellOf, Object[] cells, int ids) {
+		this.entities = entities;
+		this.cellOf = cellOf;
+		this.cells = cells;
+		this.ids = ids;
+	}
+
+	/**
+	 * Performs an action on each <code>Entity</code> that was on the map, along with its <code>Location</code>, in order
+	 * of their ids.
+	 *
+	 * @param 	action the action to perform
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(BiConsumer<? super E, ? super L> action) {
+		for (int id = 0; id < ids; id++) {
+			int cell = cellOf[id >>> EntityTable.CHUNK_BITS][id & (EntityTable.CHUNK - 1)];
+			if (cell != EntityTable.NOWHERE) {
+				action.accept((E) entities[id >>> EntityTable.CHUNK_BITS][id & (EntityTable.CHUNK - 1)], (L) cells[cell]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of <code>Entities</code> that were on the map.
+	 *
+	 * @return 	the number of <code>Entities</code> on the map
+	 */
+	public int size() {
+		index();
+		return locations.size();
+	}
+
+	/**
+	 * Returns where an <code>Entity</code> was.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the <code>Location</code> of <code>e</code>, or null if it wasn't on the map
+	 */
+	public L whereIs(EntityInterface e) {
+		index();
+		return locations.get(e);
+	}
+
+	/**
+	 * Returns the <code>Entities</code> that were in a <code>Location</code>, in order of their ids.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @return 	a read-only list of the <code>Entities</code> in <code>loc</code>, which is empty if there were none
+	 */
+	public List<E> contents(Location loc) {
+		index();
+		List<E> found = contents.get(loc);
+		return found == null ? Collections.<E>emptyList() : found;
+	}
+
+	/**
+	 * Indexes this snapshot by <code>Entity</code> and by <code>Location</code>, if it hasn't been indexed yet.
+	 */
+	private synchronized void index() {
+		if (locations != null) {
+			return;
+		}
+		final IdentityHashMap<EntityInterface, L> where = new IdentityHashMap<EntityInterface, L>();
+		final HashMap<Location, List<E>> what = new HashMap<Location, List<E>>();
+		forEach(new BiConsumer<E, L>() {
+			@Override
+			public void accept(E e, L loc) {
+				where.put(e, loc);
+				List<E> here = what.get(loc);
+				if (here == null) {
+					here = new ArrayList<E>(2);
+					what.put(loc, here);
+				}
+				here.add(e);
+			}
+		});
+		for (Location loc : what.keySet()) {
+			what.put(loc, Collections.unmodifiableList(what.get(loc)));
+		}
+		contents = what;
+		locations = where;
+	}
+}
@@ -0,0 +1,648 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.monash.fit2099.simulator.space.Location;
+import edu.monash.fit2099.simulator.space.Topology;
+
+/**
+ * Where the <code>Entities</code> of an <code>EntityManager</code> are, stored by dense integer ids.
+ * <p>
+ * An <code>Entity</code> is given an id when it is registered, and its id is handed on to another <code>Entity</code>
+ * once it has been released, so the ids stay between zero (0) and the largest number of <code>Entities</code> registered
+ * at a time. Every <code>Location</code> an <code>Entity</code> has been put in is given a cell number in the same way,
+ * except that cells are never released. The cell of each <code>Entity</code> is kept in an <code>int</code> array
+ * indexed by id, and the ids of the <code>Entities</code> in each cell in an <code>int</code> array per cell, so that an
+ * <code>Entity</code> costs a few array elements instead of several map entries.
+ * <p>
+ * The index of each <code>Entity</code> in the array of its cell is kept as well, so that an <code>Entity</code> leaves 
+ * its cell in constant time, however crowded the cell is, by moving the last <code>Entity</code> of the cell into its 
+ * place. The <code>Entities</code> in a cell are therefore in no particular order. The arrays of cells that run empty are
+ * kept for the next <code>Entities</code> to enter them.
+ * <p>
+ * An <code>Entity</code> carries its id, so looking it up doesn't hash. Other implementations of
+ * <code>EntityInterface</code>, and <code>Entities</code> that already have an id in another table, have their ids kept
+ * in a <code>HashMap</code> instead. Likewise, the cell of a <code>Location</code> that has been placed in a 
+ * <code>Topology</code>, e.g. a <code>Grid</code>, is looked up by its cell in the <code>Topology</code>, in arrays of
+ * <code>PAGE</code> cells that are made as the <code>Entities</code> reach them. Only <code>Locations</code> outside 
+ * the first <code>Topology</code> seen have their cells kept in a <code>HashMap</code>.
+ * <p>
+ * The <code>Affordances</code> of the <code>Entities</code> in each cell are collected into one array the first time they
+ * are asked for, and kept until the cell changes. Each cell has a version that goes up whenever an <code>Entity</code>
+ * enters or leaves it or an <code>Entity</code> in it gains or loses an <code>Affordance</code>, and the array is only
+ * collected again when its version is out of date. Cells with <code>Entities</code> that don't carry their id in this
+ * table aren't cached, since those <code>Entities</code> can't say when their <code>Affordances</code> change.
+ * <p>
+ * The <code>Entity</code> and the cell of each id, which is all a reader needs to know where everything is, are kept in
+ * chunks of <code>CHUNK</code> ids that are copied on write, so that a snapshot only has to copy the arrays of chunks:
+ * taking a snapshot starts a new generation, and a chunk that belongs to an older generation is copied before it is
+ * changed, leaving the old one to the snapshots that share it. The <code>Location</code> of each cell never changes once
+ * it has been given, so the snapshots share the array of them as it is.
+ *
+ * @author 	agent
+ * @see 	{@link EntityManager}
+ */
+final class EntityTable<E extends EntityInterface, L extends Location> {
+
+	/**The cell of an <code>Entity</code> that isn't on the map*/
+	static final int NOWHERE = -1;
+
+	/**The number of bits of an id that give its place in its chunk*/
+	static final int CHUNK_BITS = 6;
+
+	/**The number of ids in a chunk*/
+	static final int CHUNK = 1 << CHUNK_BITS;
+
+	/**The number of bits of the cell of a <code>Location</code> in its <code>Topology</code> that give its place in its page*/
+	static final int PAGE_BITS = 12;
+
+	/**The number of cells of the <code>Topology</code> in a page of <code>topologyCells</code>*/
+	static final int PAGE = 1 << PAGE_BITS;
+
+	/**The <code>Entity</code> with each id, or null if the id is free, in chunks of <code>CHUNK</code> ids*/
+	private Object[][] entities;
+
+	/**The cell of the <code>Entity</code> with each id, or <code>NOWHERE</code>, in chunks of <code>CHUNK</code> ids*/
+	private int[][] cellOf;
+
+	/**The generation in which each chunk of <code>entities</code> and <code>cellOf</code> was made, i.e. last copied*/
+	private int[] chunkGenerations;
+
+	/**The current generation, which goes up with every snapshot. Chunks of older generations may be shared with snapshots*/
+	private int generation;
+
+	/**The index of the <code>Entity</code> with each id in the array of its cell, if it's on the map*/
+	private int[] slotOf;
+
+	/**The number of ids handed out, i.e. the lowest id that has never been used*/
+	private int ids;
+
+	/**Ids that have been released and can be handed out again, used as a stack*/
+	private int[] free;
+
+	/**The number of ids in <code>free</code>*/
+	private int freeCount;
+
+	/**Ids of <code>Entities</code> that can't carry their id in this table*/
+	private HashMap<EntityInterface, Integer> foreignIds;
+
+	/**The <code>Location</code> of each cell. The array is replaced when it grows, and its elements never change*/
+	private Object[] cells;
+
+	/**The number of cells*/
+	private int cellCount;
+
+	/**The <code>Topology</code> whose <code>Locations</code> have their cells looked up in <code>topologyCells</code>, or null*/
+	private Topology topology;
+
+	/**
+	 * The cell of each <code>Location</code> of the <code>topology</code> plus one, or 0 if it has none yet, by its cell 
+	 * in the <code>topology</code>, in pages of <code>PAGE</code> cells that are null until they are needed
+	 */
+	private int[][] topologyCells;
+
+	/**The cell of each <code>Location</code> that isn't in the <code>topology</code>*/
+	private HashMap<Location, Integer> cellIds;
+
+	/**The ids of the <code>Entities</code> in each cell, in no particular order*/
+	private int[][] occupants;
+
+	/**The number of <code>Entities</code> in each cell*/
+	private int[] occupantCount;
+
+	/**The read-only view of each cell, created the first time it's asked for*/
+	private List<?>[] views;
+
+	/**The version of each cell, which goes up whenever its <code>Entities</code> or their <code>Affordances</code> change*/
+	private int[] versions;
+
+	/**The <code>Affordances</code> of the <code>Entities</code> in each cell, as of <code>affordanceVersions</code>*/
+	private Affordance[][] affordances;
+
+	/**The id of the <code>Entity</code> of each of the <code>affordances</code> of each cell*/
+	private int[][] affordanceOwners;
+
+	/**The number of <code>affordances</code> of each cell*/
+	private int[] affordanceCounts;
+
+	/**The version of each cell that its <code>affordances</code> were collected at*/
+	private int[] affordanceVersions;
+
+	/**
+	 * A read-only list of the <code>Entities</code> in a cell, which reads straight from the arrays of the table and so
+	 * always shows what is in the cell at the time.
+	 */
+	private final class CellView extends AbstractList<E> {
+
+		/**The cell this view shows*/
+		private final int cell;
+
+		private CellView(int cell) {
+			this.cell = cell;
+		}
+
+		@Override
+		public E get(int index) {
+			if (index < 0 || index >= occupantCount[cell]) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + occupantCount[cell]);
+			}
+			return entity(occupants[cell][index]);
+		}
+
+		@Override
+		public int size() {
+			return occupantCount[cell];
+		}
+	}
+
+	/**
+	 * Constructor for an empty <code>EntityTable</code>.
+	 */
+	EntityTable() {
+		entities = new Object[1][];
+		cellOf = new int[1][];
+		chunkGenerations = new int[1];
+		generation = 0;
+		slotOf = new int[16];
+		free = new int[16];
+		ids = 0;
+		freeCount = 0;
+		foreignIds = new HashMap<EntityInterface, Integer>();
+		cells = new Object[16];
+		cellCount = 0;
+		topology = null;
+		topologyCells = new int[0][];
+		cellIds = new HashMap<Location, Integer>();
+		occupants = new int[16][];
+		occupantCount = new int[16];
+		views = new List<?>[16];
+		versions = new int[16];
+		affordances = new Affordance[16][];
+		affordanceOwners = new int[16][];
+		affordanceCounts = new int[16];
+		affordanceVersions = new int[16];
+	}
+
+	/**
+	 * Returns the id of an <code>Entity</code>.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the id of <code>e</code>, or a negative number if <code>e</code> isn't registered
+	 */
+	int idOf(EntityInterface e) {
+		if (e instanceof Entity && ((Entity) e).table == this) {
+			return ((Entity) e).id;
+		}
+		if (foreignIds.isEmpty()) {
+			return -1;
+		}
+		Integer id = foreignIds.get(e);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Gives an <code>Entity</code> an id, if it hasn't got one already. A new <code>Entity</code> is not on the map.
+	 *
+	 * @param 	e the <code>Entity</code> to register
+	 * @return 	the id of <code>e</code>
+	 */
+	int register(EntityInterface e) {
+		int id = idOf(e);
+		if (id >= 0) {
+			return id;
+		}
+
+		if (freeCount > 0) {
+			id = free[--freeCount];
+		}
+		else {
+			id = ids++;
+			if (id == slotOf.length) {
+				slotOf = Arrays.copyOf(slotOf, id * 2);
+			}
+			int chunk = id >>> CHUNK_BITS;
+			if (chunk == entities.length) {
+				entities = Arrays.copyOf(entities, chunk * 2);
+				cellOf = Arrays.copyOf(cellOf, chunk * 2);
+				chunkGenerations = Arrays.copyOf(chunkGenerations, chunk * 2);
+			}
+			if (entities[chunk] == null) {
+				entities[chunk] = new Object[CHUNK];
+				cellOf[chunk] = new int[CHUNK];
+				chunkGenerations[chunk] = generation;
+			}
+		}
+		setEntity(id, e);
+		setCell(id, NOWHERE);
+
+		if (e instanceof Entity && ((Entity) e).table == null) {
+			((Entity) e).table = this;
+			((Entity) e).id = id;
+		}
+		else {
+			foreignIds.put(e, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Takes the id of an <code>Entity</code> back, so that it can be given to another one.
+	 *
+	 * @param 	id the id to release
+	 * @pre 	the <code>Entity</code> with the id <code>id</code> is not on the map
+	 */
+	void release(int id) {
+		//Precondition 1: Ensure nothing is left in a cell under this id
+		assert (cellOf(id) == NOWHERE):"an Entity must be taken off the map before its id is released";
+
+		EntityInterface e = entity(id);
+		if (e instanceof Entity && ((Entity) e).table == this) {
+			((Entity) e).table = null;
+			((Entity) e).id = -1;
+		}
+		else {
+			foreignIds.remove(e);
+		}
+		setEntity(id, null);
+
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, freeCount * 2);
+		}
+		free[freeCount++] = id;
+	}
+
+	/**
+	 * Returns the <code>Entity</code> with an id.
+	 *
+	 * @param 	id the id
+	 * @return 	the <code>Entity</code> with the id <code>id</code>, or null if the id is free
+	 */
+	@SuppressWarnings("unchecked")
+	E entity(int id) {
+		return (E) entities[id >>> CHUNK_BITS][id & (CHUNK - 1)]; //only Es are put on the map, and only Entities on the map are asked for
+	}
+
+	/**
+	 * Returns the cell of the <code>Entity</code> with an id.
+	 *
+	 * @param 	id the id
+	 * @return 	the cell of the <code>Entity</code>, or <code>NOWHERE</code>
+	 */
+	private int cellOf(int id) {
+		return cellOf[id >>> CHUNK_BITS][id & (CHUNK - 1)];
+	}
+
+	/**
+	 * Sets the <code>Entity</code> with an id.
+	 *
+	 * @param 	id the id
+	 * @param 	e the <code>Entity</code>, or null to free the id
+	 */
+	private void setEntity(int id, EntityInterface e) {
+		entities[writableChunk(id)][id & (CHUNK - 1)] = e;
+	}
+
+	/**
+	 * Sets the cell of the <code>Entity</code> with an id.
+	 *
+	 * @param 	id the id
+	 * @param 	cell the cell, or <code>NOWHERE</code>
+	 */
+	private void setCell(int id, int cell) {
+		cellOf[writableChunk(id)][id & (CHUNK - 1)] = cell;
+	}
+
+	/**
+	 * Returns the chunk of an id, copying it first if it may be shared with a snapshot.
+	 *
+	 * @param 	id the id
+	 * @return 	the index of the chunk of <code>id</code>, which belongs to the current generation
+	 */
+	private int writableChunk(int id) {
+		int chunk = id >>> CHUNK_BITS;
+		if (chunkGenerations[chunk] != generation) {
+			entities[chunk] = entities[chunk].clone();
+			cellOf[chunk] = cellOf[chunk].clone();
+			chunkGenerations[chunk] = generation;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Returns a snapshot of where the <code>Entities</code> are. This takes time proportional to the number of chunks, and 
+	 * from then on each chunk is copied the first time it changes.
+	 *
+	 * @return 	a snapshot of this table as it is now
+	 */
+	EntitySnapshot<E, L> snapshot() {
+		EntitySnapshot<E, L> snapshot = new EntitySnapshot<E, L>(entities.clone(), cellOf.clone(), cells, ids);
+		generation++; //every chunk there is now may be shared
+		return snapshot;
+	}
+
+	/**
+	 * Returns the <code>Location</code> of the <code>Entity</code> with an id.
+	 *
+	 * @param 	id the id
+	 * @return 	the <code>Location</code> of the <code>Entity</code>, or null if it isn't on the map
+	 */
+	L locationOf(int id) {
+		int cell = cellOf(id);
+		return cell == NOWHERE ? null : location(cell);
+	}
+
+	/**
+	 * Returns the <code>Location</code> of a cell.
+	 *
+	 * @param 	cell the cell
+	 * @return 	the <code>Location</code> of <code>cell</code>
+	 */
+	@SuppressWarnings("unchecked")
+	private L location(int cell) {
+		return (L) cells[cell]; //only Ls are given cells
+	}
+
+	/**
+	 * Returns the <code>Location</code> of an <code>Entity</code>.
+	 *
+	 * @param 	e the <code>Entity</code>
+	 * @return 	the <code>Location</code> of <code>e</code>, or null if it isn't on the map
+	 */
+	L whereIs(EntityInterface e) {
+		int id = idOf(e);
+		return id < 0 ? null : locationOf(id);
+	}
+
+	/**
+	 * Returns the cell of a <code>Location</code>, without hashing if it's in the <code>topology</code>.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @return 	the cell of <code>loc</code>, or <code>NOWHERE</code> if no <code>Entity</code> has been put in it yet
+	 */
+	private int cellOf(Location loc) {
+		if (topology != null && loc.getTopology() == topology) {
+			int c = loc.getCell();
+			int page = c >>> PAGE_BITS;
+			if (page >= topologyCells.length || topologyCells[page] == null) {
+				return NOWHERE;
+			}
+			return topologyCells[page][c & (PAGE - 1)] - 1; //0, i.e. no cell, becomes NOWHERE
+		}
+		Integer c = cellIds.get(loc);
+		return c == null ? NOWHERE : c;
+	}
+
+	/**
+	 * Gives a <code>Location</code> a cell. The first <code>Location</code> that has been placed in a <code>Topology</code>
+	 * makes its <code>Topology</code> the one whose <code>Locations</code> are looked up without hashing.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @param 	cell the new cell of <code>loc</code>
+	 */
+	private void addCell(Location loc, int cell) {
+		if (topology == null && loc.getTopology() != null) {
+			topology = loc.getTopology();
+		}
+		if (topology == null || loc.getTopology() != topology) {
+			cellIds.put(loc, cell);
+			return;
+		}
+		int c = loc.getCell();
+		int page = c >>> PAGE_BITS;
+		if (page >= topologyCells.length) {
+			topologyCells = Arrays.copyOf(topologyCells, Math.max(page + 1, topologyCells.length * 2));
+		}
+		if (topologyCells[page] == null) {
+			topologyCells[page] = new int[PAGE];
+		}
+		topologyCells[page][c & (PAGE - 1)] = cell + 1;
+	}
+
+	/**
+	 * Puts the <code>Entity</code> with an id in a <code>Location</code>, taking it out of its old <code>Location</code>.
+	 * This takes constant time.
+	 *
+	 * @param 	id the id of the <code>Entity</code>
+	 * @param 	loc the new <code>Location</code> of the <code>Entity</code>
+	 */
+	void put(int id, L loc) {
+		int cell = cellOf(loc);
+		if (cell == NOWHERE) {
+			cell = cellCount++;
+			if (cell == cells.length) {
+				cells = Arrays.copyOf(cells, cell * 2); //a new array, so that snapshots keep the old one as it is
+			}
+			cells[cell] = loc;
+			addCell(loc, cell);
+			if (cell == occupants.length) {
+				occupants = Arrays.copyOf(occupants, cell * 2);
+				occupantCount = Arrays.copyOf(occupantCount, cell * 2);
+				views = Arrays.copyOf(views, cell * 2);
+				versions = Arrays.copyOf(versions, cell * 2);
+				affordances = Arrays.copyOf(affordances, cell * 2);
+				affordanceOwners = Arrays.copyOf(affordanceOwners, cell * 2);
+				affordanceCounts = Arrays.copyOf(affordanceCounts, cell * 2);
+				affordanceVersions = Arrays.copyOf(affordanceVersions, cell * 2);
+			}
+			versions[cell] = 1; //ahead of affordanceVersions, so the Affordances are collected when first asked for
+		}
+		else if (cellOf(id) == cell) {
+			return; //already there
+		}
+		remove(id);
+
+		int[] ids = occupants[cell];
+		int count = occupantCount[cell];
+		if (ids == null) {
+			ids = new int[2];
+			occupants[cell] = ids;
+		}
+		else if (count == ids.length) {
+			ids = Arrays.copyOf(ids, count * 2);
+			occupants[cell] = ids;
+		}
+		ids[count] = id;
+		occupantCount[cell] = count + 1;
+		setCell(id, cell);
+		slotOf[id] = count;
+		versions[cell]++;
+	}
+
+	/**
+	 * Takes the <code>Entity</code> with an id off the map, in constant time. Its id is kept until it is released. This 
+	 * does nothing if the <code>Entity</code> isn't on the map.
+	 *
+	 * @param 	id the id of the <code>Entity</code>
+	 */
+	void remove(int id) {
+		int cell = cellOf(id);
+		if (cell == NOWHERE) {
+			return;
+		}
+		int[] ids = occupants[cell];
+		int last = ids[--occupantCount[cell]];
+		ids[slotOf[id]] = last; //move the last Entity of the cell into the place of this one
+		slotOf[last] = slotOf[id];
+		setCell(id, NOWHERE);
+		versions[cell]++;
+	}
+
+	/**
+	 * Notes that the <code>Affordances</code> of the <code>Entity</code> with an id have changed, so that those of its cell
+	 * are collected again.
+	 *
+	 * @param 	id the id of the <code>Entity</code>
+	 */
+	void affordancesChanged(int id) {
+		int cell = cellOf(id);
+		if (cell != NOWHERE) {
+			versions[cell]++;
+		}
+	}
+
+	/**
+	 * Adds the <code>Affordances</code> of the <code>Entities</code> in a <code>Location</code>, except those of one
+	 * <code>Entity</code>, to a list.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @param 	except the <code>Entity</code> whose <code>Affordances</code> are left out, usually the one asking
+	 * @param 	into the list to add the <code>Affordances</code> to
+	 */
+	@SuppressWarnings("unchecked")
+	<A> void addAffordances(Location loc, EntityInterface except, List<A> into) {
+		int cell = cellOf(loc);
+		if (cell == NOWHERE) {
+			return;
+		}
+
+		if (!collectAffordances(cell)) { //can't be cached, so ask every Entity
+			int[] ids = occupants[cell];
+			for (int i = 0; i < occupantCount[cell]; i++) {
+				EntityInterface e = entity(ids[i]);
+				if (e != except) {
+					for (Affordance aff : e.getAffordances()) {
+						into.add((A) aff);
+					}
+				}
+			}
+			return;
+		}
+
+		int exceptId = except == null ? -1 : idOf(except);
+		Affordance[] affs = affordances[cell];
+		int[] owners = affordanceOwners[cell];
+		for (int i = 0; i < affordanceCounts[cell]; i++) {
+			if (owners[i] != exceptId) {
+				into.add((A) affs[i]); //Affordances are Actions of the Actor's type, which the generics can't express
+			}
+		}
+	}
+
+	/**
+	 * Collects the <code>Affordances</code> of a cell again, if its version has moved on since they were last collected.
+	 *
+	 * @param 	cell the cell
+	 * @return 	true if the <code>Affordances</code> of <code>cell</code> are up to date, false if they can't be cached
+	 */
+	private boolean collectAffordances(int cell) {
+		if (affordanceVersions[cell] == versions[cell]) {
+			return true;
+		}
+		int[] ids = occupants[cell];
+		int count = occupantCount[cell];
+		int total = 0;
+		for (int i = 0; i < count; i++) {
+			EntityInterface e = entity(ids[i]);
+			if (!(e instanceof Entity) || ((Entity) e).table != this) {
+				return false;
+			}
+			total += ((Entity) e).affordanceArray().length;
+		}
+
+		Affordance[] affs = affordances[cell];
+		int[] owners = affordanceOwners[cell];
+		if (affs == null || affs.length < total) {
+			affs = new Affordance[Math.max(total, 4)];
+			owners = new int[affs.length];
+			affordances[cell] = affs;
+			affordanceOwners[cell] = owners;
+		}
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			for (Affordance aff : ((Entity) entity(ids[i])).affordanceArray()) {
+				affs[n] = aff;
+				owners[n] = ids[i];
+				n++;
+			}
+		}
+		Arrays.fill(affs, n, Math.max(n, affordanceCounts[cell]), null); //let go of Affordances that have gone
+		affordanceCounts[cell] = n;
+		affordanceVersions[cell] = versions[cell];
+		return true;
+	}
+
+	/**
+	 * Returns a new list of the <code>Entities</code> in a <code>Location</code>.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @return 	a new list of the <code>Entities</code> in <code>loc</code>, or null if there are none
+	 */
+	List<E> contents(Location loc) {
+		int cell = cellOf(loc);
+		if (cell == NOWHERE || occupantCount[cell] == 0) {
+			return null;
+		}
+		int count = occupantCount[cell];
+		int[] ids = occupants[cell];
+		ArrayList<E> contents = new ArrayList<E>(count);
+		for (int i = 0; i < count; i++) {
+			contents.add(entity(ids[i]));
+		}
+		return contents;
+	}
+
+	/**
+	 * Returns a read-only view of the <code>Entities</code> in a <code>Location</code>. The view is made once per 
+	 * <code>Location</code> and shows the <code>Entities</code> that are there when it is read, so it must not be iterated 
+	 * over while <code>Entities</code> enter or leave the <code>Location</code>.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @return 	a view of the <code>Entities</code> in <code>loc</code>, which is empty if there are none
+	 */
+	@SuppressWarnings("unchecked")
+	List<E> view(Location loc) {
+		int cell = cellOf(loc);
+		if (cell == NOWHERE) {
+			return Collections.emptyList();
+		}
+		List<E> view = (List<E>) views[cell];
+		if (view == null) {
+			view = new CellView(cell);
+			views[cell] = view;
+		}
+		return view;
+	}
+
+	/**
+	 * Performs an action on each <code>Entity</code> in a <code>Location</code>.
+	 *
+	 * @param 	loc the <code>Location</code>
+	 * @param 	action the action to perform, which must not move <code>Entities</code> into or out of <code>loc</code>
+	 */
+	void forEachIn(Location loc, Consumer<? super E> action) {
+		int cell = cellOf(loc);
+		if (cell == NOWHERE) {
+			return;
+		}
+		int[] ids = occupants[cell];
+		for (int i = 0; i < occupantCount[cell]; i++) {
+			action.accept(entity(ids[i]));
+		}
+	}
+}
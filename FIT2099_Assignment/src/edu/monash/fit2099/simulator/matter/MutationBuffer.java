@@ -0,0 +1,157 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.Arrays;
+
+import edu.monash.fit2099.simulator.space.Location;
+
+/**
+ * The changes to an <code>EntityManager</code> that have been held back while it defers them, in the order in which they
+ * were made, so that they can be applied in one go.
+ * <p>
+ * Moves of the same <code>Entity</code> that follow each other are coalesced into the last of them, since only the
+ * <code>Location</code> it ends up in matters. Otherwise the changes are applied in the order in which they were made,
+ * since that is the order in which the <code>Entities</code> they wake up are ticked.
+ * <p>
+ * The changes are kept in arrays that grow as needed and are reused after each batch. The index of the last change of an
+ * <code>Entity</code>, which coalescing needs, is kept by the caller, e.g. in the <code>TickSlot</code> of the 
+ * <code>Entity</code>, so that holding a change back doesn't allocate.
+ *
+ * @author 	agent
+ * @see 	{@link EntityManager#defer()}
+ */
+final class MutationBuffer<E extends EntityInterface, L extends Location> {
+
+	/**A change of <code>Location</code>, i.e. <code>setLocation</code>*/
+	static final int MOVE = 0;
+
+	/**A removal from the map*/
+	static final int REMOVE = 1;
+
+	/**A suspension*/
+	static final int SUSPEND = 2;
+
+	/**A resumption*/
+	static final int RESUME = 3;
+
+	/**The kind of each change*/
+	private int[] kinds;
+
+	/**The <code>Entity</code> of each change*/
+	private EntityInterface[] targets;
+
+	/**The new <code>Location</code> of each move, and null for other changes*/
+	private Object[] places;
+
+	/**The number of changes held back*/
+	private int size;
+
+	/**
+	 * Constructor for an empty <code>MutationBuffer</code>.
+	 */
+	MutationBuffer() {
+		kinds = new int[16];
+		targets = new EntityInterface[16];
+		places = new Object[16];
+		size = 0;
+	}
+
+	/**
+	 * Holds back a move of an <code>Entity</code>. If the last change of the <code>Entity</code> was a move as well, that
+	 * move is changed to go to <code>loc</code> instead.
+	 *
+	 * @param 	e the <code>Entity</code> to move
+	 * @param 	loc the new <code>Location</code> of <code>e</code>
+	 * @param 	last the index of the last change of <code>e</code> in this batch, or -1 if there is none or it isn't known
+	 * @return 	the index of the change that moves <code>e</code>
+	 */
+	int move(E e, L loc, int last) {
+		if (last >= 0 && kinds[last] == MOVE) {
+			//Precondition 1: Ensure the last change is one of e
+			assert (targets[last] == e):"the last change given is not one of the Entity moved";
+			
+			places[last] = loc;
+			return last;
+		}
+		return add(MOVE, e, loc);
+	}
+
+	/**
+	 * Holds back a change that isn't a move.
+	 *
+	 * @param 	kind <code>REMOVE</code>, <code>SUSPEND</code> or <code>RESUME</code>
+	 * @param 	e the <code>Entity</code> to change
+	 * @return 	the index of the change
+	 */
+	int change(int kind, EntityInterface e) {
+		return add(kind, e, null);
+	}
+
+	/**
+	 * Adds a change to the end of this batch.
+	 *
+	 * @param 	kind the kind of change
+	 * @param 	e the <code>Entity</code> to change
+	 * @param 	loc the new <code>Location</code> of <code>e</code> for a move, or null
+	 * @return 	the index of the change
+	 */
+	private int add(int kind, EntityInterface e, L loc) {
+		if (size == kinds.length) {
+			kinds = Arrays.copyOf(kinds, size * 2);
+			targets = Arrays.copyOf(targets, size * 2);
+			places = Arrays.copyOf(places, size * 2);
+		}
+		kinds[size] = kind;
+		targets[size] = e;
+		places[size] = loc;
+		return size++;
+	}
+
+	/**
+	 * Returns the number of changes held back.
+	 *
+	 * @return 	the number of changes
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the kind of a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	<code>MOVE</code>, <code>REMOVE</code>, <code>SUSPEND</code> or <code>RESUME</code>
+	 */
+	int kind(int i) {
+		return kinds[i];
+	}
+
+	/**
+	 * Returns the <code>Entity</code> of a change.
+	 *
+	 * @param 	i the index of the change
+	 * @return 	the <code>Entity</code> changed
+	 */
+	EntityInterface target(int i) {
+		return targets[i];
+	}
+
+	/**
+	 * Returns the new <code>Location</code> of a move.
+	 *
+	 * @param 	i the index of the move
+	 * @return 	the <code>Location</code> the <code>Entity</code> moves to
+	 */
+	@SuppressWarnings("unchecked")
+	L place(int i) {
+		return (L) places[i]; //only moves, which are given an L, are asked for
+	}
+
+	/**
+	 * Forgets the changes held back, once they have been applied.
+	 */
+	void clear() {
+		Arrays.fill(targets, 0, size, null);
+		Arrays.fill(places, 0, size, null);
+		size = 0;
+	}
+}
@@ -0,0 +1,72 @@
+package edu.monash.fit2099.simulator.matter;
+
+import java.util.ArrayList;
+
+/**
+ * Holds back the side effects of ticking an <code>Entity</code> while <code>Entities</code> are ticked in parallel.
+ * <p>
+ * In a parallel tick every <code>Entity</code> is ticked on a worker thread against the state of the <code>World</code> at
+ * the start of the tick. Anything a tick would change outside the <code>Entity</code> itself (scheduling an <code>Action</code>, 
+ * displaying a message) is passed to <code>run(Runnable)</code>, which records it instead of doing it. The 
+ * <code>EntityManager</code> then applies the recorded effects on its own thread, one <code>Entity</code> at a time, in the 
+ * order in which a sequential tick would have ticked them.
+ * <p>
+ * Outside a parallel tick <code>run(Runnable)</code> simply runs the effect.
+ * 
+ * @author 	agent
+ * @see 	{@link EntityManager#tick(java.util.concurrent.ForkJoinPool, TickPartitioner, edu.monash.fit2099.simulator.util.RandomSource)}
+ */
+public final class TickEffects {
+	
+	/**
+	 * The effects recorded for the <code>Entity</code> that the current thread is ticking, or null if it isn't ticking
+	 * one in parallel
+	 */
+	private static final ThreadLocal<ArrayList<Runnable>> recording = new ThreadLocal<ArrayList<Runnable>>();
+	
+	/**
+	 * There are no <code>TickEffects</code> objects, only the static methods.
+	 */
+	private TickEffects() {
+	}
+	
+	/**
+	 * Runs an effect now, or records it to be run later if the current thread is ticking an <code>Entity</code> in parallel.
+	 * 
+	 * @param 	effect the change to the world outside the <code>Entity</code> being ticked
+	 */
+	public static void run(Runnable effect) {
+		ArrayList<Runnable> effects = recording.get();
+		if (effects != null) {
+			effects.add(effect);
+		}
+		else {
+			effect.run();
+		}
+	}
+	
+	/**
+	 * Returns true if the current thread is ticking an <code>Entity</code> in parallel, so that effects are recorded.
+	 * 
+	 * @return 	true if and only if effects passed to <code>run(Runnable)</code> are recorded
+	 */
+	public static boolean isRecording() {
+		return recording.get() != null;
+	}
+	
+	/**
+	 * Starts recording the effects of the current thread into a list.
+	 * 
+	 * @param 	effects the list to record effects into
+	 */
+	static void record(ArrayList<Runnable> effects) {
+		recording.set(effects);
+	}
+	
+	/**
+	 * Stops recording the effects of the current thread.
+	 */
+	static void stop() {
+		recording.remove();
+	}
+}
@@ -0,0 +1,40 @@
+package edu.monash.fit2099.simulator.matter;
+
+import edu.monash.fit2099.simulator.space.Location;
+
+/**
+ * Interface for splitting the <code>Entities</code> of a <code>World</code> into partitions that are ticked in parallel.
+ * <p>
+ * <code>Entities</code> are usually partitioned by where they are, so that each worker thread mostly reads one part of 
+ * the map, e.g. stripes of rows of a <code>Grid</code>. An <code>Entity</code> that must be ticked on the thread that 
+ * ticks the <code>World</code> (for example because it waits for input from the user) is put in the 
+ * <code>SEQUENTIAL</code> partition.
+ * 
+ * @author 	agent
+ * @param 	<E> the type of <code>Entities</code> partitioned
+ * @param 	<L> the type of <code>Locations</code> of the <code>Entities</code>
+ * @see 	{@link EntityManager#tick(java.util.concurrent.ForkJoinPool, TickPartitioner, edu.monash.fit2099.simulator.util.RandomSource)}
+ */
+public interface TickPartitioner<E extends EntityInterface, L extends Location> {
+	
+	/**
+	 * The partition of <code>Entities</code> that are ticked on the thread that ticks the <code>World</code>, in turn
+	 */
+	public static final int SEQUENTIAL = -1;
+	
+	/**
+	 * Returns the number of partitions.
+	 * 
+	 * @return 	the number of partitions, at least one (1)
+	 */
+	public abstract int partitions();
+	
+	/**
+	 * Returns the partition of an <code>Entity</code>.
+	 * 
+	 * @param 	e the <code>Entity</code>
+	 * @param 	loc the <code>Location</code> of <code>e</code> at the start of the tick
+	 * @return 	a partition from zero (0) to <code>partitions() - 1</code>, or <code>SEQUENTIAL</code>
+	 */
+	public abstract int partitionOf(E e, L loc);
+}
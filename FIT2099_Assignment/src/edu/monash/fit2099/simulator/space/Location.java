@@ -1,10 +1,16 @@
 package edu.monash.fit2099.simulator.space;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Location base class for simulated locations.
  * <p>
+ * The neighbours of a <code>Location</code> in a regular layout, such as a <code>Grid</code>, are worked out by the 
+ * <code>Topology</code> of the layout, so that the <code>Location</code> doesn't have to store them. Only exits that 
+ * differ from the <code>Topology</code>, e.g. an exit blocked by a wall or a path to somewhere further away, are stored, 
+ * in a table that is only created for the <code>Locations</code> that have them.
+ * <p>
  * Generated by UML Lab.
  * 
  * @author ram
@@ -14,44 +20,175 @@ import java.util.Map;
  * Changelog:
  * 2013-04-13: Factored Location.Maker out into a separate file, because the combination
  * 		of inner classes and generics was too much for Eclipse's tiny brain (ram)
+ * 2026-10-16: Neighbours are worked out by a Topology, and the map of neighbours only holds the exits that differ from it
+ * 2026-10-16: A Location knows its coordinates and its cell, which its LocationContainer tells it
+ * 2026-10-17: Added materializeNeighbour, since getNeighbour doesn't make a neighbour that its Topology hasn't made yet
  */
 public abstract class Location {
 
 	/**
-	 * Stores references to neighbours of this <code>Location</code> associated with the direction
+	 * Stores references to neighbours of this <code>Location</code> associated with the direction, where they differ from
+	 * the neighbours worked out by the <code>topology</code>. A <code>Direction</code> mapped to null is a blocked exit.
+	 * <p>
+	 * This is null until an exit is added or blocked.
 	 */
 	protected Map<Direction, Location> neighbours;
+	
+	/**
+	 * Works out the neighbours of this <code>Location</code>, or null if only the <code>neighbours</code> are its neighbours
+	 */
+	private Topology topology;
+	
+	/**
+	 * The cell of this <code>Location</code> in its <code>topology</code>, or -1 if it hasn't been placed in one
+	 */
+	private int cell = -1;
+	
+	/**
+	 * The coordinates of this <code>Location</code> in its <code>topology</code>, or -1 if it hasn't been placed in one
+	 */
+	private int x = -1, y = -1;
+	
+	/**
+	 * Tells this <code>Location</code> the <code>Topology</code> that works out its neighbours, and where it is in it. This is
+	 * done by the <code>LocationContainer</code> that lays the <code>Locations</code> out, e.g. a <code>Grid</code>.
+	 * 
+	 * @param 	topology the <code>Topology</code> of this <code>Location</code>
+	 * @param 	cell the cell of this <code>Location</code> in <code>topology</code>
+	 * @param 	x the West/East coordinate of this <code>Location</code>
+	 * @param 	y the North/South coordinate of this <code>Location</code>
+	 */
+	public void placeIn(final Topology topology, final int cell, final int x, final int y) {
+		this.topology = topology;
+		this.cell = cell;
+		this.x = x;
+		this.y = y;
+	}
+	
+	/**
+	 * Returns the <code>Topology</code> this <code>Location</code> has been placed in.
+	 * 
+	 * @return 	the <code>Topology</code> of this <code>Location</code>, or null if it hasn't been placed in one
+	 */
+	public Topology getTopology() {
+		return topology;
+	}
+	
+	/**
+	 * Returns the cell of this <code>Location</code> in its <code>Topology</code>, e.g. its index in a <code>Grid</code>.
+	 * 
+	 * @return 	the cell of this <code>Location</code>, or -1 if it hasn't been placed in a <code>Topology</code>
+	 */
+	public int getCell() {
+		return cell;
+	}
+	
+	/**
+	 * Returns the West/East coordinate of this <code>Location</code>, which increases moving from West to East.
+	 * 
+	 * @return 	the <code>x</code> coordinate of this <code>Location</code>, or -1 if it hasn't been placed in a <code>Topology</code>
+	 */
+	public int getX() {
+		return x;
+	}
+	
+	/**
+	 * Returns the North/South coordinate of this <code>Location</code>, which increases moving from North to South.
+	 * 
+	 * @return 	the <code>y</code> coordinate of this <code>Location</code>, or -1 if it hasn't been placed in a <code>Topology</code>
+	 */
+	public int getY() {
+		return y;
+	}
 
 	/**
 	 * Finds and returns neighbouring location of this <code>Location</code> in the specified direction, or null if no such neighbour exists
 	 * <p>
+	 * This doesn't allocate anything, so it also returns null for a neighbour that the <code>Topology</code> hasn't made yet.
+	 * Use <code>hasExit</code> to tell whether there is a neighbour, and <code>materializeNeighbour</code> to move there.
+	 * 
 	 * @param 	d the direction
-	 * @return 	the neighbour in the specified direction <code>d</code>, or null if no such neighbour exists
+	 * @return 	the neighbour in the specified direction <code>d</code>, or null if no such neighbour exists or it hasn't been made yet
+	 * @see 	#materializeNeighbour(Direction)
 	 */
 	public Location getNeighbour(final Direction d) {
-		return neighbours.get(d);
+		if (neighbours != null && neighbours.containsKey(d)) {
+			return neighbours.get(d); //an exit that differs from the topology, or null if it's blocked
+		}
+		return topology == null ? null : topology.neighbourOf(cell, d);
+	}
+	
+	/**
+	 * Finds and returns neighbouring location of this <code>Location</code> in the specified direction, making it first if
+	 * the <code>Topology</code> hasn't made it yet, e.g. because an <code>Entity</code> is moving there.
+	 * 
+	 * @param 	d the direction
+	 * @return 	the neighbour in the specified direction <code>d</code>, or null if no such neighbour exists
+	 * @see 	#getNeighbour(Direction)
+	 */
+	public Location materializeNeighbour(final Direction d) {
+		if (neighbours != null && neighbours.containsKey(d)) {
+			return neighbours.get(d);
+		}
+		return topology == null ? null : topology.materializeNeighbour(cell, d);
 	}
 
 	/**
-	 * Adds a neighbour to this <code>Location</code> in the specified direction.
+	 * Adds a neighbour to this <code>Location</code> in the specified direction, in place of the one worked out by its 
+	 * <code>Topology</code>, if any.
 	 * 
 	 * @param 	d direction in which the neighbour needs to be added
 	 * @param 	l neighbouring location
-	 * @return 	the neighbouring location of this <code>Location</code> in the direction <code>d</code>
+	 * @return 	the neighbouring location of this <code>Location</code> in the direction <code>d</code> before, or null if there was none
 	 */
 	public Location addNeighbour(final Direction d, final Location l) {
-		return neighbours.put(d, l);
+		Location old = materializeNeighbour(d);
+		exits().put(d, l);
+		return old;
+	}
+	
+	/**
+	 * Blocks the exit of this <code>Location</code> in the specified direction, e.g. because of a wall, so that it has no 
+	 * neighbour in that direction.
+	 * 
+	 * @param 	d direction of the exit to block
+	 * @return 	the neighbouring location of this <code>Location</code> in the direction <code>d</code> before, or null if there was none
+	 * @see 	#addNeighbour(Direction, Location)
+	 */
+	public Location blockExit(final Direction d) {
+		Location old = materializeNeighbour(d);
+		exits().put(d, null);
+		return old;
+	}
+	
+	/**
+	 * Returns the table of the exits of this <code>Location</code> that differ from its <code>Topology</code>, creating it the 
+	 * first time.
+	 * 
+	 * @return 	the <code>neighbours</code> of this <code>Location</code>
+	 */
+	private Map<Direction, Location> exits() {
+		if (neighbours == null) {
+			neighbours = new HashMap<Direction, Location>(4);
+		}
+		return neighbours;
 	}
 	
 	/**
 	 * Returns true if and only if there is a <code>Location</code> adjacent to this <code>Location</code> in the 
 	 * specified <code>Direction d<code>, false otherwise
+	 * <p>
+	 * Unlike <code>getNeighbour</code>, this doesn't need the neighbour itself, so it doesn't make it if the 
+	 * <code>Topology</code> makes its <code>Locations</code> lazily.
 	 * 
 	 * @param d direction
 	 * @return true if such a <code>Location</code> in the specified <code>Direction d</code> exists, false otherwise
 	 */
 	public Boolean hasExit(final Direction d) {
-		return neighbours.keySet().contains(d);
+		if (neighbours != null && neighbours.containsKey(d)) {
+			return neighbours.get(d) != null;
+		}
+		return topology != null && topology.hasNeighbour(cell, d);
 	}
 	
 }
@@ -0,0 +1,51 @@
+package edu.monash.fit2099.simulator.space;
+
+/**
+ * Works out the neighbours of the <code>Locations</code> of a <code>LocationContainer</code> from where they are, so that
+ * regular layouts such as grids don't have to store the neighbours of every <code>Location</code>.
+ * <p>
+ * Each <code>Location</code> is told its <code>Topology</code> and its cell, a number that the <code>Topology</code> 
+ * chooses, e.g. the index of the <code>Location</code> in a grid. A neighbour is then worked out whenever it's asked for,
+ * which must neither allocate nor change anything, since it's done every time an <code>Entity</code> looks for an exit.
+ * <p>
+ * A <code>Topology</code> may make its <code>Locations</code> lazily. A neighbour that hasn't been made yet is then only 
+ * made by <code>materializeNeighbour</code>, which is used when an <code>Entity</code> actually moves there.
+ * 
+ * @author 	agent
+ * @see 	Location#placeIn(Topology, int, int, int)
+ */
+public interface Topology {
+	
+	/**
+	 * Returns the neighbour of a cell in a <code>Direction</code>.
+	 * 
+	 * @param 	cell the cell of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>
+	 * @return 	the <code>Location</code> next to <code>cell</code> in the <code>Direction d</code>, or null if there is none,
+	 * 			e.g. because <code>cell</code> is on the edge or <code>d</code> isn't a <code>Direction</code> of this 
+	 * 			<code>Topology</code>, or because it hasn't been made yet
+	 * @see 	#materializeNeighbour(int, Direction)
+	 */
+	public abstract Location neighbourOf(int cell, Direction d);
+	
+	/**
+	 * Returns the neighbour of a cell in a <code>Direction</code>, making it first if it hasn't been made yet. This is only
+	 * for when the neighbour is really needed, e.g. because an <code>Entity</code> is moving there.
+	 * 
+	 * @param 	cell the cell of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>
+	 * @return 	the <code>Location</code> next to <code>cell</code> in the <code>Direction d</code>, or null if there is none
+	 * @see 	#neighbourOf(int, Direction)
+	 */
+	public abstract Location materializeNeighbour(int cell, Direction d);
+	
+	/**
+	 * Returns true if a cell has a neighbour in a <code>Direction</code>. This should be cheaper than 
+	 * <code>neighbourOf</code>, e.g. it shouldn't make a neighbour that hasn't been made yet.
+	 * 
+	 * @param 	cell the cell of the <code>Location</code>
+	 * @param 	d the <code>Direction</code>
+	 * @return 	true if and only if <code>neighbourOf(cell, d)</code> isn't null
+	 */
+	public abstract boolean hasNeighbour(int cell, Direction d);
+}
@@ -1,8 +1,11 @@
 package edu.monash.fit2099.simulator.space;
 import java.util.Observable;
+import java.util.concurrent.ForkJoinPool;
 
 import edu.monash.fit2099.simulator.matter.EntityInterface;
 import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.matter.TickPartitioner;
+import edu.monash.fit2099.simulator.util.RandomSource;
 
 /**
  * World: base class for simulated worlds.
@@ -36,6 +39,11 @@ import edu.monash.fit2099.simulator.matter.EntityManager;
  * 		it can pass those parameters along, then I can't make the entity manager static.  So I've put
  * 		in a protected abstract accessor to force concrete subclasses to at least have access to an
  * 		entity manager.  (ram)
+ * 2026-10-16: added idleTicks and skipTicks for the skip-ahead mode of the Scheduler
+ * 2026-10-16: added suspend and resume so that the Scheduler can take waiting Actors out of tick()
+ * 2026-10-16: added an optional parallel tick
+ * 2026-10-16: added a seeded RandomSource so that runs can be replayed
+ * 2026-10-16: added publishChanges so that the Scheduler can hand the changes of each tick to their listeners
  * 
  */
 
@@ -52,6 +60,24 @@ public abstract class World extends Observable {
 	@SuppressWarnings("rawtypes")		// space will contain instances of a Location subtype specified in client code
 	protected LocationContainer space;	// instantiate in subclass constructor
 	
+	/**
+	 * The pool on which <code>Entities</code> are ticked in parallel, or null to tick them one after the other
+	 * 
+	 * @see #setParallelTick(ForkJoinPool, TickPartitioner)
+	 */
+	private ForkJoinPool tickPool = null;
+	
+	/**
+	 * Splits the <code>Entities</code> into partitions for a parallel tick
+	 */
+	private TickPartitioner<EntityInterface, Location> partitioner = null;
+	
+	/**
+	 * The source of random numbers of this <code>World</code>, seeded with <code>RandomSource.defaultSeed()</code> 
+	 * unless <code>setSeed(long)</code> is called
+	 */
+	private RandomSource random = new RandomSource();
+	
 	
 	/**
 	 * Part of the Observer pattern.
@@ -80,11 +106,109 @@ public abstract class World extends Observable {
 	 * Ask all <code>Entities</code> in this <code>World</code> if they need to do something.
 	 * 
 	 * <code>Actors</code> have a chance to select an action command; non-Actor entities can passively change over time.
+	 * <p>
+	 * If a parallel tick has been set, the <code>Entities</code> are ticked in parallel with the same outcome.
 	 * 
 	 * @author 	ram
 	 * @date 	19 February 2013
+	 * @see 	#setParallelTick(ForkJoinPool, TickPartitioner)
 	 */
 	public void tick() {
-		getEntityManager().tick();
+		if (tickPool != null) {
+			getEntityManager().tick(tickPool, partitioner, random);
+		}
+		else {
+			getEntityManager().tick(random);
+		}
+	}
+	
+	/**
+	 * Hands the changes made to the map since the last call to the listeners of the <code>EntityManager</code>. The 
+	 * <code>Scheduler</code> calls this at the end of every tick.
+	 * 
+	 * @see 	EntityManager#publishChanges()
+	 */
+	public void publishChanges() {
+		getEntityManager().publishChanges();
+	}
+	
+	/**
+	 * Returns the source of random numbers of this <code>World</code>. <code>Entities</code> and their behaviours should 
+	 * use <code>getRandom().get()</code> rather than <code>Math.random()</code>, so that a run can be replayed from its seed.
+	 * 
+	 * @return 	the <code>RandomSource</code> of this <code>World</code>
+	 * @see 	RandomSource#get()
+	 */
+	public RandomSource getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Reseeds the source of random numbers of this <code>World</code>. This should be done before the <code>World</code> is
+	 * set up and ticked, to replay a run.
+	 * 
+	 * @param 	seed the new seed
+	 * @see 	RandomSource#getSeed()
+	 */
+	public void setSeed(long seed) {
+		random = new RandomSource(seed);
+	}
+	
+	/**
+	 * Makes <code>tick()</code> tick the <code>Entities</code> of this <code>World</code> in parallel, or one after the other again.
+	 * 
+	 * @param 	pool the pool to tick on, or null to tick sequentially
+	 * @param 	partitioner splits the <code>Entities</code> into partitions that are ticked in parallel
+	 * @pre 	<code>partitioner</code> should not be null if <code>pool</code> isn't null
+	 * @see 	EntityManager#tick(ForkJoinPool, TickPartitioner, RandomSource)
+	 */
+	public void setParallelTick(ForkJoinPool pool, TickPartitioner<EntityInterface, Location> partitioner) {
+		//Precondition 1: Ensure there is a way to partition the Entities
+		assert (pool == null || partitioner != null):"a parallel tick needs a partitioner";
+		
+		this.tickPool = pool;
+		this.partitioner = partitioner;
+	}
+	
+	/**
+	 * Returns the number of ticks that can pass before any <code>Entity</code> in this <code>World</code> does 
+	 * something on a tick.
+	 * 
+	 * @return 	the number of idle ticks, or <code>Integer.MAX_VALUE</code> if no <code>Entity</code> will ever do anything
+	 * @see 	EntityManager#idleTicks()
+	 */
+	public int idleTicks() {
+		return getEntityManager().idleTicks();
+	}
+	
+	/**
+	 * Leaves an <code>Entity</code> out of <code>tick()</code> until it is resumed.
+	 * 
+	 * @param 	e the <code>Entity</code> to suspend
+	 * @see 	EntityManager#suspend(EntityInterface)
+	 */
+	public void suspend(EntityInterface e) {
+		getEntityManager().suspend(e);
+	}
+	
+	/**
+	 * Lets a suspended <code>Entity</code> be ticked again.
+	 * 
+	 * @param 	e the <code>Entity</code> to resume
+	 * @see 	EntityManager#resume(EntityInterface)
+	 */
+	public void resume(EntityInterface e) {
+		getEntityManager().resume(e);
+	}
+	
+	/**
+	 * Lets a number of idle ticks pass in one go. This has the same effect as calling <code>tick()</code> that many times.
+	 * 
+	 * @param 	ticks the number of ticks to skip
+	 * @pre 	<code>ticks</code> should not be greater than <code>idleTicks()</code>
+	 * @see 	EntityManager#skipTicks(int)
+	 */
+	public void skipTicks(int ticks) {
+		getEntityManager().skipTicks(ticks);
 	}
 }
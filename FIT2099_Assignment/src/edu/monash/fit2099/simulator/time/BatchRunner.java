@@ -0,0 +1,156 @@
+package edu.monash.fit2099.simulator.time;
+
+/**
+ * Runs a <code>Scheduler</code> without any user interface for a number of ticks, or until a condition is met, and
+ * measures how fast it goes.
+ * <p>
+ * After a run the <code>BatchRunner</code> reports the ticks per second, the <code>Events</code> executed per tick and
+ * the heap in use. This is meant for load testing configurations of a <code>World</code> on machines without a terminal.
+ * 
+ * @author 	agent
+ * @see 	{@link Scheduler}
+ */
+public class BatchRunner {
+	
+	/**
+	 * A condition on which a run stops early. It is checked after every tick.
+	 */
+	public static interface StopCondition {
+		
+		/**
+		 * Returns true if the run should stop.
+		 * 
+		 * @return 	true if and only if the condition is met
+		 */
+		public abstract boolean isMet();
+	}
+	
+	/**The <code>Scheduler</code> to run*/
+	private Scheduler scheduler;
+	
+	/**The number of ticks of the last run*/
+	private int ticks = 0;
+	
+	/**The number of <code>Events</code> executed in the last run*/
+	private long events = 0;
+	
+	/**The time the last run took in nanoseconds*/
+	private long elapsed = 0;
+	
+	/**The largest amount of heap in use seen during the last run, in bytes*/
+	private long peakHeap = 0;
+	
+	/**The amount of heap in use at the end of the last run, in bytes*/
+	private long finalHeap = 0;
+	
+	/**True if the last run stopped because its <code>StopCondition</code> was met*/
+	private boolean stoppedEarly = false;
+	
+	/**
+	 * Constructor for a <code>BatchRunner</code> of a <code>Scheduler</code>.
+	 * 
+	 * @param 	scheduler the <code>Scheduler</code> of the <code>World</code> to run
+	 */
+	public BatchRunner(Scheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+	
+	/**
+	 * Ticks the <code>Scheduler</code> until <code>maxTicks</code> ticks have passed or the <code>condition</code> is met.
+	 * 
+	 * @param 	maxTicks the largest number of ticks to run for
+	 * @param 	condition stops the run early when it's met, or null to always run <code>maxTicks</code> ticks
+	 * @pre 	<code>maxTicks</code> should not be negative
+	 */
+	public void run(int maxTicks, StopCondition condition) {
+		//Precondition 1: Ensure the number of ticks is not negative
+		assert (maxTicks >= 0):"maxTicks must not be negative";
+		
+		Runtime runtime = Runtime.getRuntime();
+		long startEvents = scheduler.getEventsExecuted();
+		ticks = 0;
+		stoppedEarly = false;
+		peakHeap = runtime.totalMemory() - runtime.freeMemory();
+		
+		long start = System.nanoTime();
+		while (ticks < maxTicks) {
+			scheduler.tick();
+			ticks++;
+			peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+			
+			if (condition != null && condition.isMet()) {
+				stoppedEarly = true;
+				break;
+			}
+		}
+		elapsed = System.nanoTime() - start;
+		
+		events = scheduler.getEventsExecuted() - startEvents;
+		finalHeap = runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	/**
+	 * Returns the number of ticks of the last run.
+	 * 
+	 * @return 	the number of ticks
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+	
+	/**
+	 * Returns true if the last run stopped because its <code>StopCondition</code> was met.
+	 * 
+	 * @return 	true if and only if the last run stopped early
+	 */
+	public boolean stoppedEarly() {
+		return stoppedEarly;
+	}
+	
+	/**
+	 * Returns the number of ticks per second of the last run.
+	 * 
+	 * @return 	ticks per second, or zero (0) if there was no run
+	 */
+	public double getTicksPerSecond() {
+		return elapsed == 0 ? 0 : ticks * 1e9 / elapsed;
+	}
+	
+	/**
+	 * Returns the average number of <code>Events</code> executed per tick in the last run.
+	 * 
+	 * @return 	<code>Events</code> per tick, or zero (0) if there was no run
+	 */
+	public double getEventsPerTick() {
+		return ticks == 0 ? 0 : (double) events / ticks;
+	}
+	
+	/**
+	 * Returns the largest amount of heap in use seen during the last run.
+	 * 
+	 * @return 	the peak heap use in bytes
+	 */
+	public long getPeakHeap() {
+		return peakHeap;
+	}
+	
+	/**
+	 * Returns the amount of heap in use at the end of the last run.
+	 * 
+	 * @return 	the heap use in bytes
+	 */
+	public long getFinalHeap() {
+		return finalHeap;
+	}
+	
+	/**
+	 * Returns a one line summary of the last run, suitable for logs.
+	 * 
+	 * @return 	a summary of the last run
+	 */
+	public String report() {
+		return String.format("ticks=%d%s time=%.3fs ticks/s=%.1f events=%d events/tick=%.2f heap=%.1fMB peakHeap=%.1fMB",
+				ticks, stoppedEarly ? " (stopped early)" : "", elapsed / 1e9, getTicksPerSecond(), events, getEventsPerTick(),
+				finalHeap / 1048576.0, peakHeap / 1048576.0);
+	}
+}
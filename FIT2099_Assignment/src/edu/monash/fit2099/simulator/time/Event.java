@@ -0,0 +1,256 @@
+package edu.monash.fit2099.simulator.time;
+
+import edu.monash.fit2099.simulator.matter.ActionInterface;
+import edu.monash.fit2099.simulator.matter.Actor;
+
+/**
+ * An <code>Event</code> is the execution of a <code>Action</code>, by an <code>Actor</code>, at a point in time.
+ * <p>
+ * The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically.
+ * <p>
+ * <code>Events</code> are created by the <code>Scheduler</code> and kept in an <code>EventQueue</code> until they are due.
+ * The <code>Event</code> returned by {@link Scheduler#schedule(ActionInterface, Actor, int)} is a handle that can be used
+ * to <code>cancel()</code> it before it happens.
+ * <p>
+ * <code>Events</code> added with {@link Scheduler#post(ActionInterface, Actor, int)} are <code>pooled</code>: nobody outside the
+ * <code>Scheduler</code> holds on to them, so it recycles them for later <code>Events</code> once they have come up.
+ *
+ * @author ram
+ * @see {@link Scheduler}
+ * @see {@link EventQueue}
+ */
+/*
+ * Changelog
+ *
+ * 2026-10-16: Moved out of Scheduler so that EventQueue implementations other than the PriorityQueue can store Events
+ * 2026-10-16: Events can be cancelled
+ * 2026-10-16: Events can be pooled and reset by the Scheduler
+ * 2026-10-16: Events know their position in the pending Events of their Actor
+ */
+public class Event implements Comparable<Event> {
+
+	/**The <code>Action</code> to be performed for this <code>Event</code>*/
+	private ActionInterface what;
+
+	/**The <code>Actor</code> of the <code>Action</code> for this <code>Event</code>.
+	 * <p>
+	 * The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically.
+	 */
+	private Actor<?> who;
+
+	/**
+	 * When this <code>Event</code> should occur
+	 */
+	private int when;
+	
+	/**
+	 * The <code>Scheduler</code> that scheduled this <code>Event</code>, or null if it wasn't scheduled by one
+	 */
+	private Scheduler scheduler;
+	
+	/**
+	 * True if this <code>Event</code> has been cancelled. A cancelled <code>Event</code> stays in its <code>EventQueue</code>
+	 * as a tombstone until it comes up or the queue is purged, and is not executed.
+	 */
+	private boolean cancelled = false;
+	
+	/**
+	 * True if this <code>Event</code> has been handed out by its <code>Scheduler</code>, whether or not it was executed
+	 */
+	private boolean done = false;
+	
+	/**
+	 * True if this <code>Event</code> belongs to the pool of its <code>Scheduler</code> and is recycled once it has come up
+	 */
+	private boolean pooled = false;
+	
+	/**
+	 * The position of this <code>Event</code> in the list of pending <code>Events</code> of its <code>Actor</code> in its
+	 * <code>Scheduler</code>, or -1 if it isn't in one, so that it can be taken out of the list in constant time
+	 */
+	int pendingIndex = -1;
+
+	/**
+	 * Constructor for an <code>Event</code> object.
+	 *
+	 * @param what what Action to be performed as the event
+	 * @param who the actor of the event. The Actor may be null in the case of simulations that allow the world to change automatically.
+	 * @param when when the event should occur
+	 */
+	Event(ActionInterface what, Actor<?> who, int when) {
+		this.what = what;
+		this.who = who;
+		this.when = when;
+	}
+	
+	/**
+	 * Constructor for an <code>Event</code> scheduled by a <code>Scheduler</code>, which can be cancelled through it.
+	 *
+	 * @param what what Action to be performed as the event
+	 * @param who the actor of the event. The Actor may be null in the case of simulations that allow the world to change automatically.
+	 * @param when when the event should occur
+	 * @param scheduler the <code>Scheduler</code> that scheduled the event
+	 */
+	Event(ActionInterface what, Actor<?> who, int when, Scheduler scheduler) {
+		this(what, who, when);
+		this.scheduler = scheduler;
+	}
+
+	//getters for the class attributes
+	public ActionInterface getAction() {
+		return what;
+	}
+
+	public Actor<?> getActor() {
+		return who;
+	}
+
+	public int getTime() {
+		return when;
+	}
+	
+	/**
+	 * Returns true if this <code>Event</code> has been cancelled.
+	 * 
+	 * @return true if and only if this <code>Event</code> has been cancelled
+	 * @see #cancel()
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * Returns true if this <code>Event</code> is still to happen, i.e. it has neither happened nor been cancelled.
+	 * 
+	 * @return true if and only if this <code>Event</code> is pending
+	 */
+	public boolean isPending() {
+		return !cancelled && !done;
+	}
+	
+	/**
+	 * Cancels this <code>Event</code> so that its <code>Action</code> won't be executed. This takes constant time.
+	 * <p>
+	 * Cancelling an <code>Event</code> that has already happened or been cancelled does nothing.
+	 * 
+	 * @return true if this <code>Event</code> was pending and is now cancelled, false otherwise
+	 * @see Scheduler#cancel(Event)
+	 */
+	public boolean cancel() {
+		if (scheduler != null) {
+			return scheduler.cancel(this);
+		}
+		if (!isPending()) {
+			return false;
+		}
+		cancelled = true;
+		return true;
+	}
+	
+	/**
+	 * Returns true if this <code>Event</code> is recycled by its <code>Scheduler</code> once it has come up.
+	 * 
+	 * @return true if and only if this <code>Event</code> is pooled
+	 */
+	boolean isPooled() {
+		return pooled;
+	}
+	
+	/**
+	 * Reuses this pooled <code>Event</code> for a new <code>Action</code>, as if it had just been created.
+	 *
+	 * @param what what Action to be performed as the event
+	 * @param who the actor of the event, or null
+	 * @param when when the event should occur
+	 * @pre this <code>Event</code> should be pooled and no longer be in any <code>EventQueue</code>
+	 */
+	void reset(ActionInterface what, Actor<?> who, int when) {
+		this.what = what;
+		this.who = who;
+		this.when = when;
+		this.cancelled = false;
+		this.done = false;
+		this.pendingIndex = -1;
+	}
+	
+	/**
+	 * Marks this <code>Event</code> as belonging to the pool of its <code>Scheduler</code>.
+	 */
+	void markPooled() {
+		pooled = true;
+	}
+	
+	/**
+	 * Lets go of the <code>Action</code> and <code>Actor</code> of this pooled <code>Event</code> while it waits in the pool.
+	 */
+	void release() {
+		this.what = null;
+		this.who = null;
+	}
+	
+	/**
+	 * Marks this <code>Event</code> as cancelled. Used by the <code>Scheduler</code> that keeps count of its tombstones.
+	 */
+	void markCancelled() {
+		cancelled = true;
+	}
+	
+	/**
+	 * Marks this <code>Event</code> as handed out by its <code>Scheduler</code>.
+	 */
+	void markDone() {
+		done = true;
+	}
+
+	/**
+	 * Compare this against another Event, e.
+	 * <p>
+	 * Events will be compared by their time (<code>when</code>) and also by
+	 * the <code>priority</code> of their <code>Actions</code> (<code>what</code>)
+	 *
+	 *
+	 * @author 	ram
+	 * @author 	Asel
+	 * @date 	19 February 2013
+	 * @date  	8 January 2017 (Modified)
+	 * @param 	e the event to compare this Event to
+	 * @return 	<ul>
+	 * 				<li>0 if the events are simultaneous and their <code>Actions</code> have the same <code>priority</code></li>
+	 * 				<li>a positive integer if,
+	 * 					<ul>
+	 * 						<li>the <code>Event this</code> happens before <code>e</code> OR</li>
+	 * 						<li>the <code>Event this</code> and <code>e</code> happens at the same time but
+	 * 							the <code>Action</code> of <code>Event this</code> has higher <code>priority</code> than the <code>Action</code> of <code>Event e</code></li>
+	 * 					</ul>
+	 * 				</li>
+	 *	 			<li>a negative integer if,
+	 * 					<ul>
+	 * 						<li>the <code>Event this</code> happens after the <code>e</code> OR</li>
+	 * 						<li>the <code>Event this</code> and <code>e</code> happens at the same time but
+	 * 							the <code>Action</code> of event <code>this</code> has lower <code>priority</code> than the <code>Action</code> of <code>Event e</code></li>
+	 * 					</ul>
+	 * 				</li>
+	 * 			</ul>
+	 * @see 	{@link #what}
+	 * @see 	{@link #when}
+	 */
+	public int compareTo(Event e) {
+		//First sort by the time of the event
+        int timeResult = this.when - e.when;
+
+        //if the comparison gave us a result i.e the events aren't simultaneous,
+        //then it's safe to return the results as it is
+        if (timeResult!=0){
+        	return timeResult;
+        }
+
+        //if we are here then the events are simultaneous, hence must be sorted according to priority of the event's action
+        int priorityResult = e.getAction().getPriority() - this.getAction().getPriority();
+
+        //NOTE: if the priority result is still 0, then we let the events happen in an arbitrary order
+
+        //return the result
+        return priorityResult;
+	}
+
+}
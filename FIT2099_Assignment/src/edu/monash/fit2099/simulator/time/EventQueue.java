@@ -0,0 +1,66 @@
+package edu.monash.fit2099.simulator.time;
+
+/**
+ * Interface for the queue of pending <code>Events</code> kept by the <code>Scheduler</code>.
+ * <p>
+ * Implementations must hand out due <code>Events</code> in the order defined by {@link Event#compareTo(Event)}, i.e.
+ * earlier <code>Events</code> first and, within the same time, <code>Events</code> whose <code>Actions</code> have a
+ * higher <code>priority</code> first.
+ *
+ * @author 	agent
+ * @see 	{@link Scheduler}
+ * @see 	{@link HeapEventQueue}
+ * @see 	{@link TimingWheelEventQueue}
+ */
+public interface EventQueue {
+
+	/**
+	 * Adds an <code>Event</code> to this queue.
+	 *
+	 * @param 	e the <code>Event</code> to add
+	 * @pre 	<code>e</code> should not be null
+	 */
+	public abstract void offer(Event e);
+
+	/**
+	 * Removes and returns the next <code>Event</code> that is due at or before the time <code>limit</code>, or null if
+	 * there is no such <code>Event</code>.
+	 * <p>
+	 * Once this method has returned null for a <code>limit</code>, the caller promises not to ask for <code>Events</code>
+	 * due before that <code>limit</code> again. <code>Events</code> offered later with a time at or before the <code>limit</code>
+	 * are handed out by the next call.
+	 *
+	 * @param 	limit the latest time of the <code>Events</code> to be returned
+	 * @return 	the next due <code>Event</code>, or null if no <code>Event</code> is due at or before <code>limit</code>
+	 */
+	public abstract Event pollDue(int limit);
+
+	/**
+	 * Returns the time of the earliest pending <code>Event</code> without removing it.
+	 *
+	 * @return 	the time of the next <code>Event</code>, or <code>Integer.MAX_VALUE</code> if this queue is empty
+	 */
+	public abstract int nextTime();
+
+	/**
+	 * Removes all cancelled <code>Events</code> from this queue. The order of the remaining <code>Events</code> is kept.
+	 *
+	 * @return 	the number of <code>Events</code> removed
+	 * @see 	Event#isCancelled()
+	 */
+	public abstract int purge();
+
+	/**
+	 * Returns the number of <code>Events</code> in this queue.
+	 *
+	 * @return the number of pending <code>Events</code>
+	 */
+	public abstract int size();
+
+	/**
+	 * Returns true if and only if there are no pending <code>Events</code> in this queue.
+	 *
+	 * @return true if this queue is empty, false otherwise
+	 */
+	public abstract boolean isEmpty();
+}
@@ -0,0 +1,78 @@
+package edu.monash.fit2099.simulator.time;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * <code>EventQueue</code> backed by a binary heap (a <code>PriorityQueue</code>).
+ * <p>
+ * Every <code>offer</code> and every <code>pollDue</code> costs O(log n) in the number of pending <code>Events</code>.
+ * This is the original implementation of the <code>Scheduler</code> queue and is kept as a fallback for
+ * simulations where <code>Events</code> are scheduled very far into the future.
+ *
+ * @author 	agent
+ * @see 	{@link TimingWheelEventQueue}
+ */
+public class HeapEventQueue implements EventQueue {
+
+	/**
+	 * Priority Queue of <code>Events</code> sorted by time and priority of <code>Actions</code>.
+	 * <p>
+	 * <code>Events</code> scheduled to happen at the same time with same <code>priority</code> in their <code>Actions</code> complete in
+	 * arbitrary order.
+	 *
+	 * @see {@link Event#compareTo(Event)}
+	 */
+	private PriorityQueue<Event> events;
+
+	/**
+	 * Constructor for an empty <code>HeapEventQueue</code>.
+	 */
+	public HeapEventQueue() {
+		events = new PriorityQueue<Event>();
+	}
+
+	@Override
+	public void offer(Event e) {
+		events.offer(e);
+	}
+
+	@Override
+	public Event pollDue(int limit) {
+		//the second condition ensures that an event that should happen in the future isn't handed out now
+		if (!events.isEmpty() && events.peek().getTime() <= limit) {
+			return events.poll();
+		}
+		return null;
+	}
+
+	@Override
+	public int nextTime() {
+		if (events.isEmpty()) {
+			return Integer.MAX_VALUE;
+		}
+		return events.peek().getTime();
+	}
+
+	@Override
+	public int purge() {
+		int removed = 0;
+		for (Iterator<Event> it = events.iterator(); it.hasNext();) {
+			if (it.next().isCancelled()) {
+				it.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		return events.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return events.isEmpty();
+	}
+}
@@ -1,17 +1,30 @@
 package edu.monash.fit2099.simulator.time;
 
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 import edu.monash.fit2099.simulator.matter.Action;
 import edu.monash.fit2099.simulator.matter.ActionInterface;
 import edu.monash.fit2099.simulator.matter.Actor;
+import edu.monash.fit2099.simulator.matter.TickEffects;
 import edu.monash.fit2099.simulator.space.World;
 
 /** 
  * This class handles time in the simulation by maintaining a priority queue of <code>Events</code>, prioritized by time and then
  * by priority for <code>Events</code> scheduled to happen in the same tick.
  * <p>
- * <code>Event</code> is an inner class that contains  
+ * The queue is an <code>EventQueue</code>. By default a <code>TimingWheelEventQueue</code> is used, which adds and expires 
+ * <code>Events</code> in constant time. A <code>HeapEventQueue</code> can be passed to the constructor instead.
+ * <p>
+ * Scheduled <code>Events</code> can be cancelled. A cancelled <code>Event</code> is left in the queue as a tombstone and skipped
+ * when it comes up; once the tombstones make up a large part of the queue it is purged of them.
+ * <p>
+ * <code>Actions</code> that nobody needs to cancel individually can be <code>post</code>ed instead of <code>schedule</code>d. 
+ * Their <code>Events</code> come from a pool and are recycled once they have come up, so that an <code>Actor</code> that 
+ * keeps acting doesn't make the <code>Scheduler</code> allocate anything.
+ * <p>
+ * <code>Event</code> is a class that contains  
  * <ul>
  * 	<li>an <code>Action</code></li>
  * 	<li>an <code>Actor</code></li>
@@ -31,116 +44,23 @@ import edu.monash.fit2099.simulator.space.World;
  * 2017-01-20: Comments for the tick method(asel)
  * 2017-02-08: Changes to the compareTo method of the Event class to handle the new ordering of Events based on the priority of the Events Actions(asel)
  * 2017-02-19: Added the duration to Actors events before adding them to the queue.
+ * 2026-10-16: Moved Event out into its own class and put the queue behind the EventQueue interface, with a timing wheel as the default
+ * 2026-10-16: Added the skip-ahead mode that jumps over ticks in which nothing happens
+ * 2026-10-16: Waiting Actors are put to sleep until their wake-up time instead of counting down their waittime every tick
+ * 2026-10-16: schedule() returns the Event so that it can be cancelled. Added cancelAll(Actor) for Actors that die
+ * 2026-10-16: Events scheduled during a parallel tick are added to the queue through TickEffects
+ * 2026-10-16: Counts the Events executed and exposes the number of pending Events, for the headless runner
+ * 2026-10-16: Added post(), which recycles Events from a pool, and pooled the wake-up Events
+ * 2026-10-16: Records SchedulerMetrics of the executed Events and the queue depth, if it has been given them
+ * 2026-10-16: The changes made to the map in each tick are published to their listeners at the end of the tick
+ * 2026-10-16: An Event is taken out of the pending Events of its Actor by its position, so cancelling it takes constant time
+ * 2026-10-17: cancelAll also forgets the wake-up time of the Actor, so a dead Actor is neither kept nor woken up
  */
 
 public class Scheduler {
 	
 	/**
-	 * An <code>Event</code> is the execution of a <code>Action</code>, by an <code>Actor</code>, at a point in time.  
-	 * 
-	 * The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically. 
-	 * 
-	 * @author ram
-	 *
-	 */	
-	private class Event implements Comparable<Event> {
-		
-		/**The <code>Action</code> to be performed for this <code>Event</code>*/
-		private ActionInterface what;
-		
-		/**The <code>Actor</code> of the <code>Action</code> for this <code>Event</code>.
-		 * <p>
-		 * The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically. 
-		 */
-		private Actor<?> who;
-		
-		/**
-		 * When this <code>Event</code> should occur
-		 */
-		private int when;
-		
-		/**
-		 * Constructor for an <code>Event</code> object.
-		 * 
-		 * @param what what Action to be performed as the event
-		 * @param who the actor of the event. The Actor may be null in the case of simulations that allow the world to change automatically.
-		 * @param when when the event should occur
-		 */
-		public Event(ActionInterface what, Actor<?> who, int when) {
-			this.what = what;
-			this.who = who;
-			this.when = when;
-		}
-		
-		//getters for the class attributes
-		public ActionInterface getAction() {
-			return what;
-		}
-		
-		public Actor<?> getActor() {
-			return who;
-		}
-		
-		public int getTime() {
-			return when;
-		}
-		
-		/**
-		 * Compare this against another Event, e.
-		 * <p>
-		 * Events will be compared by their time (<code>when</code>) and also by 
-		 * the <code>priority</code> of their <code>Actions</code> (<code>what</code>)
-		 * 
-		 *  
-		 * @author 	ram
-		 * @author 	Asel
-		 * @date 	19 February 2013
-		 * @date  	8 January 2017 (Modified)
-		 * @param 	e the event to compare this Event to
-		 * @return 	<ul>
-		 * 				<li>0 if the events are simultaneous and their <code>Actions</code> have the same <code>priority</code></li>
-		 * 				<li>a positive integer if, 
-		 * 					<ul>
-		 * 						<li>the <code>Event this</code> happens before <code>e</code> OR</li>
-		 * 						<li>the <code>Event this</code> and <code>e</code> happens at the same time but
-		 * 							the <code>Action</code> of <code>Event this</code> has higher <code>priority</code> than the <code>Action</code> of <code>Event e</code></li>
-		 * 					</ul>
-		 * 				</li>
-		 *	 			<li>a negative integer if, 
-		 * 					<ul>
-		 * 						<li>the <code>Event this</code> happens after the <code>e</code> OR</li>
-		 * 						<li>the <code>Event this</code> and <code>e</code> happens at the same time but
-		 * 							the <code>Action</code> of event <code>this</code> has lower <code>priority</code> than the <code>Action</code> of <code>Event e</code></li>
-		 * 					</ul>
-		 * 				</li>
-		 * 			</ul>
-		 * @see 	{@link #what}
-		 * @see 	{@link #when}
-		 */
-		public int compareTo(Event e) {
-			//First sort by the time of the event
-	        int timeResult = this.when - e.when;
-	        
-	        //if the comparison gave us a result i.e the events aren't simultaneous,
-	        //then it's safe to return the results as it is
-	        if (timeResult!=0){
-	        	return timeResult;
-	        }
-	        
-	        //if we are here then the events are simultaneous, hence must be sorted according to priority of the event's action
-	        int priorityResult = e.getAction().getPriority() - this.getAction().getPriority();
-	        
-	        //NOTE: if the priority result is still 0, then we let the events happen in an arbitrary order
-	        
-	        //return the result
-	        return priorityResult;
-		}
-		
-		
-	}
-	
-	/**
-	 * Priority Queue of <code>Events</code> sorted by time and priority of <code>Actions</code>.
+	 * Queue of <code>Events</code> sorted by time and priority of <code>Actions</code>.
 	 * <p>
 	 * All <code>Events</code> are sorted by their scheduled time (<code>when</code>) with <code>Events</code>
 	 * scheduled earlier (smaller <code>when</code>) happening before <code>Events</code> scheduled later (larger <code>when</code>).
@@ -152,8 +72,48 @@ public class Scheduler {
 	 * arbitrary order.
 	 *   
 	 * @see {@link Event#compareTo(Event)}
+	 * @see {@link EventQueue}
+	 */
+	private EventQueue events;
+	
+	/**
+	 * The least number of tombstones in the queue before it is purged
+	 * 
+	 * @see #cancel(Event)
+	 */
+	private static final int MIN_PURGE = 64;
+	
+	/**
+	 * The number of cancelled <code>Events</code> still in the queue of events (<code>events</code>)
+	 */
+	private int tombstones = 0;
+	
+	/**
+	 * The pending <code>Events</code> of each <code>Actor</code>, so that they can be cancelled together.
+	 * <p>
+	 * The list of an <code>Actor</code> is kept when it runs empty, since the <code>Actor</code> is likely to act again, and
+	 * only dropped by <code>cancelAll</code>.
+	 * 
+	 * @see #cancelAll(Actor)
 	 */
-	private PriorityQueue<Event> events = new PriorityQueue<Event>();
+	private Map<Actor<?>, ArrayList<Event>> pending;
+	
+	/**
+	 * Pooled <code>Events</code> that have come up and can be reused
+	 * 
+	 * @see #post(ActionInterface, Actor, int)
+	 */
+	private ArrayList<Event> pool;
+	
+	/**The number of <code>Events</code> executed so far, not counting cancelled ones*/
+	private long executed = 0;
+	
+	/**
+	 * The metrics this <code>Scheduler</code> records, or null if it doesn't record any
+	 * 
+	 * @see #setMetrics(SchedulerMetrics)
+	 */
+	private SchedulerMetrics metrics = null;
 	
 	/**Stores the current time of the <code>World</code>. Zero(0) to start with*/
 	private int now = 0;
@@ -166,6 +126,63 @@ public class Scheduler {
 	/**The <code>World</code> for which this <code>Scheduler</code> passes time, i.e. the <code>World</code> to be ticked*/
 	private World universe;
 	
+	/**
+	 * If or not this <code>Scheduler</code> jumps over ticks in which nothing happens. False by default.
+	 * 
+	 * @see #skipIdleTicks()
+	 */
+	private boolean skipAhead = false;
+	
+	/**
+	 * <code>Actors</code> that have been put to sleep, as wake-up <code>Events</code> due at the time they can act again.
+	 * 
+	 * @see #sleep(Actor, int)
+	 */
+	private EventQueue wakeups;
+	
+	/**
+	 * The time at which each sleeping <code>Actor</code> wakes up, or <code>AWAKE</code>. Only the latest wake-up of an 
+	 * <code>Actor</code> counts.
+	 * <p>
+	 * The time is kept in a one element array that stays in the map while the <code>Actor</code> is awake, so that putting
+	 * it to sleep again neither boxes the time nor adds an entry to the map.
+	 */
+	private Map<Actor<?>, int[]> sleeping;
+	
+	/**Wake-up time of an <code>Actor</code> in <code>sleeping</code> that is awake*/
+	private static final int AWAKE = Integer.MIN_VALUE;
+	
+	/**
+	 * True while this <code>Scheduler</code> is in the middle of a <code>tick()</code>
+	 */
+	private boolean ticking = false;
+	
+	/**
+	 * The <code>Action</code> of wake-up <code>Events</code>. Executing it wakes the <code>Actor</code> up.
+	 */
+	private final ActionInterface wakeUp = new ActionInterface() {
+		
+		@Override
+		public int getDuration() {
+			return 0;
+		}
+
+		@Override
+		public void execute(Actor<?> actor) {
+			wake(actor);
+		}
+
+		@Override
+		public String getDescription() {
+			return "wake up";
+		}
+
+		@Override
+		public int getPriority() {
+			return 0;
+		}
+	};
+	
 	
 	/**
 	 * Schedules an <code>Action</code> by adding an <code>Event</code> to the queue of events (<code>events</code>).
@@ -173,32 +190,234 @@ public class Scheduler {
 	 * @param 	c the <code>Action</code> to be scheduled
 	 * @param 	a the actor of the <code>Action</code> or <code>Event</code>. The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically.
 	 * @param 	duration of the <code>Event</code> (how long it takes for the event to complete)
+	 * @return 	the scheduled <code>Event</code>, which can be cancelled, or null if nothing was scheduled
 	 * 
 	 * @see 	{@link #events}
+	 * @see 	{@link Event#cancel()}
 	 */
-	public void schedule(ActionInterface c, Actor<?> a, int duration) {
+	public Event schedule(ActionInterface c, Actor<?> a, int duration) {
+		return enqueue(c, a, duration, false);
+	}
+	
+	/**
+	 * Schedules an <code>Action</code> just like <code>schedule</code> does, but with a pooled <code>Event</code> that is 
+	 * recycled once it has come up. 
+	 * <p>
+	 * No handle to the <code>Event</code> is returned, since it may stand for a different <code>Action</code> by the time 
+	 * the caller looks at it again. The <code>Event</code> can still be cancelled with <code>cancelAll</code>. 
+	 * 
+	 * @param 	c the <code>Action</code> to be scheduled
+	 * @param 	a the actor of the <code>Action</code> or <code>Event</code>. The <code>Actor</code> may be null in the case of simulations that allow the world to change automatically.
+	 * @param 	duration of the <code>Event</code> (how long it takes for the event to complete)
+	 * @see 	#schedule(ActionInterface, Actor, int)
+	 * @see 	#cancelAll(Actor)
+	 */
+	public void post(ActionInterface c, Actor<?> a, int duration) {
+		enqueue(c, a, duration, true);
+	}
+	
+	/**
+	 * Schedules an <code>Action</code> with a new or a pooled <code>Event</code>.
+	 * 
+	 * @param 	c the <code>Action</code> to be scheduled
+	 * @param 	a the actor of the <code>Action</code>, or null
+	 * @param 	duration of the <code>Event</code>
+	 * @param 	pooled true to take the <code>Event</code> from the pool
+	 * @return 	the scheduled <code>Event</code>, or null if nothing was scheduled
+	 */
+	private Event enqueue(ActionInterface c, Actor<?> a, int duration, boolean pooled) {
 			
 		int delay = 0;
 		int cooldown = 0;
+		Event e = null;
 		
 		if (a instanceof Actor){
 			if(c instanceof Action){
 				delay = ((Action) c).getDelay();
 				cooldown = ((Action) c).getCooldown();
 				int waittime = delay + cooldown;
-				a.setWaittime(waittime);//set actor's wait time
 				
 				//add event to queue of events. Note for the actor the event will be scheduled to happen after the delay from now
-				events.offer(new Event(c, a, now + duration + delay));
+				e = pooled ? obtain(c, a, now + duration + delay) : new Event(c, a, now + duration + delay, this);
+				add(e, waittime);
 			}
 		}
 		else{//Non actors or null
 			//add event to queue of events. The event will happen after the duration from now
-			events.offer(new Event(c, a, now + duration));
+			e = pooled ? obtain(c, a, now + duration) : new Event(c, a, now + duration, this);
+			add(e, 0);
+		}
+		
+		return e;
+	}
+	
+	/**
+	 * Adds a new <code>Event</code> to the queue of events and, if it has an <code>Actor</code>, sets the wait time of the 
+	 * <code>Actor</code> and remembers the <code>Event</code> as pending for it.
+	 * <p>
+	 * If <code>Entities</code> are being ticked in parallel this is held back until their effects are applied.
+	 * 
+	 * @param 	e the new <code>Event</code>
+	 * @param 	waittime the number of ticks the <code>Actor</code> of <code>e</code> has to wait
+	 * @see 	TickEffects#run(Runnable)
+	 */
+	private void add(final Event e, final int waittime) {
+		if (!TickEffects.isRecording()) {
+			offer(e, waittime); //no need for a Runnable
+			return;
+		}
+		TickEffects.run(new Runnable() {
+			@Override
+			public void run() {
+				offer(e, waittime);
+			}
+		});
+	}
+	
+	/**
+	 * Does the work of <code>add</code>.
+	 * 
+	 * @param 	e the new <code>Event</code>
+	 * @param 	waittime the number of ticks the <code>Actor</code> of <code>e</code> has to wait
+	 * @see 	#add(Event, int)
+	 */
+	private void offer(Event e, int waittime) {
+		Actor<?> a = e.getActor();
+		if (a != null) {
+			sleep(a, waittime);//set actor's wait time
+			
+			ArrayList<Event> actorEvents = pending.get(a);
+			if (actorEvents == null) {
+				actorEvents = new ArrayList<Event>(2);
+				pending.put(a, actorEvents);
+			}
+			e.pendingIndex = actorEvents.size();
+			actorEvents.add(e);
+		}
+		events.offer(e);
+	}
+	
+	/**
+	 * Takes an <code>Event</code> from the pool, or creates a pooled one if the pool is empty.
+	 * 
+	 * @param 	what the <code>Action</code> of the <code>Event</code>
+	 * @param 	who the <code>Actor</code> of the <code>Event</code>, or null
+	 * @param 	when when the <code>Event</code> should occur
+	 * @return 	a pooled <code>Event</code>
+	 */
+	private Event obtain(ActionInterface what, Actor<?> who, int when) {
+		if (pool.isEmpty()) {
+			Event e = new Event(what, who, when, this);
+			e.markPooled();
+			return e;
+		}
+		Event e = pool.remove(pool.size() - 1);
+		e.reset(what, who, when);
+		return e;
+	}
+	
+	/**
+	 * Puts a pooled <code>Event</code> that has come up back in the pool. Other <code>Events</code> are left alone.
+	 * 
+	 * @param 	e the <code>Event</code> that has come up
+	 */
+	private void recycle(Event e) {
+		if (e.isPooled()) {
+			e.release();
+			pool.add(e);
+		}
+	}
+	
+	/**
+	 * Cancels a pending <code>Event</code> of this <code>Scheduler</code> in constant time. 
+	 * <p>
+	 * The <code>Event</code> stays in the queue as a tombstone and is skipped when it comes up. When there are more than
+	 * <code>MIN_PURGE</code> tombstones and they make up at least half the queue, the queue is purged of them.
+	 * 
+	 * @param 	e the <code>Event</code> to cancel
+	 * @return 	true if <code>e</code> was pending and is now cancelled, false if it had already happened or been cancelled
+	 * @see 	{@link Event#cancel()}
+	 */
+	public boolean cancel(Event e) {
+		if (!e.isPending()) {
+			return false;
 		}
+		e.markCancelled();
+		tombstones++;
+		forget(e);
 		
+		if (tombstones > MIN_PURGE && tombstones * 2 >= events.size()) {
+			events.purge();
+			tombstones = 0;
+		}
+		return true;
+	}
+	
+	/**
+	 * Cancels all the pending <code>Events</code> of an <code>Actor</code>, e.g. because it has died.
+	 * <p>
+	 * If the <code>Actor</code> is asleep it is never woken up, and this <code>Scheduler</code> forgets it altogether.
+	 * 
+	 * @param 	a the <code>Actor</code> whose <code>Events</code> are to be cancelled
+	 * @return 	the number of <code>Events</code> cancelled
+	 * @see 	#cancel(Event)
+	 */
+	public int cancelAll(Actor<?> a) {
+		sleeping.remove(a); //its wake-up Event finds nothing to wake when it comes up
+		
+		ArrayList<Event> actorEvents = pending.remove(a);
+		if (actorEvents == null) {
+			return 0;
+		}
+		
+		int cancelled = 0;
+		for (int i = 0; i < actorEvents.size(); i++) {
+			Event e = actorEvents.get(i);
+			e.pendingIndex = -1; //the list has already been dropped
+			if (cancel(e)) {
+				cancelled++;
+			}
+		}
+		return cancelled;
+	}
+	
+	/**
+	 * Marks an <code>Event</code> that has come up as done.
+	 * 
+	 * @param 	e the <code>Event</code> that has come up
+	 */
+	private void done(Event e) {
+		if (e.isCancelled()) {
+			tombstones--; //already forgotten when it was cancelled
+		}
+		else {
+			forget(e);
+		}
+		e.markDone();
+	}
+	
+	/**
+	 * Removes an <code>Event</code> from the pending <code>Events</code> of its <code>Actor</code> in constant time, by 
+	 * moving the last of them into its place.
+	 * 
+	 * @param 	e the <code>Event</code> that is no longer pending
+	 */
+	private void forget(Event e) {
+		int i = e.pendingIndex;
+		if (i < 0) {
+			return; //it has no Actor, or its list was dropped by cancelAll
+		}
+		ArrayList<Event> actorEvents = pending.get(e.getActor());
 		
+		//Precondition 1: Ensure the Event is where it says it is
+		assert (actorEvents != null && actorEvents.get(i) == e):"Event is not in the pending Events of its Actor";
 		
+		Event last = actorEvents.remove(actorEvents.size() - 1);
+		if (last != e) {
+			actorEvents.set(i, last);
+			last.pendingIndex = i;
+		}
+		e.pendingIndex = -1;
 	}
 	
 	/** 
@@ -211,25 +430,199 @@ public class Scheduler {
 	 */
 	public void tick() {
 		
+		if (skipAhead) {
+			skipIdleTicks();
+		}
+		ticking = true;
+		
+		//wake up the Actors whose wait is over, so that they act in this tick
+		Event wake;
+		while ((wake = wakeups.pollDue(now)) != null) {
+			wake.getAction().execute(wake.getActor());
+			recycle(wake);
+		}
+		
 		//calls the tick in other Entities so that they could schedule actions and so on
 		universe.tick();
 		
-		while (!events.isEmpty() && events.peek().getTime() <= now + ticksize) {
-			//the second condition ensures that an event that should happen in the future doesn't execute now
-								
-			//get the event at the head of the queue
-			Event e = events.poll();
+		//the depth of the queue once the Entities have scheduled their Actions for this tick
+		if (metrics != null) {
+			metrics.recordTick(getPendingEvents());
+		}
+		
+		//get the events due before the next time tick, in order. Events that should happen in the future aren't returned
+		Event e;
+		while ((e = events.pollDue(now + ticksize)) != null) {
+			boolean cancelled = e.isCancelled();
+			done(e);
 			
-			//execute that event
-			e.getAction().execute(e.getActor());			
+			//execute that event, unless it has been cancelled
+			if (!cancelled) {
+				if (metrics == null) {
+					e.getAction().execute(e.getActor());
+				}
+				else {
+					long start = System.nanoTime();
+					e.getAction().execute(e.getActor());
+					metrics.recordExecution(e.getAction().getClass(), System.nanoTime() - start);
+				}
+				executed++;
+			}
+			recycle(e); //only once it has been executed, since executing it may post another Event
 		}
 		//update the present time after the tick has happened
 		now = now + ticksize;
+		ticking = false;
+		
+		//let whatever follows the map catch up with the changes of this tick
+		universe.publishChanges();
+	}
+	
+	/**
+	 * Sets the <code>waittime</code> of an <code>Actor</code> and, if it has to wait, takes it out of the tick loop of the 
+	 * <code>World</code> and registers the time at which it can act again.
+	 * <p>
+	 * The <code>Actor</code> acts again in the same tick as it would if it counted its <code>waittime</code> down one tick at a 
+	 * time: a wait set during a tick starts counting in the next tick, and a wait set between ticks (e.g. while setting up the 
+	 * <code>World</code>) starts counting in the next tick to come.
+	 * 
+	 * @param 	a the <code>Actor</code> that has to wait
+	 * @param 	waittime the number of ticks <code>a</code> has to wait
+	 * @pre 	<code>waittime</code> should be greater than or equal to zero (0)
+	 * @see 	Actor#setWaittime(int)
+	 */
+	private void sleep(Actor<?> a, int waittime) {
+		a.setWaittime(waittime);
+		
+		int[] wakeTime = sleeping.get(a);
+		if (waittime == 0) {
+			if (wakeTime != null && wakeTime[0] != AWAKE) {
+				wake(a); //the new wait replaces the old one
+			}
+			return;
+		}
+		
+		if (wakeTime == null) {
+			wakeTime = new int[] {AWAKE};
+			sleeping.put(a, wakeTime);
+		}
+		wakeTime[0] = now + (ticking ? waittime + 1 : waittime) * ticksize;
+		wakeups.offer(obtain(wakeUp, a, wakeTime[0]));
+		universe.suspend(a);
+	}
+	
+	/**
+	 * Wakes up a sleeping <code>Actor</code> so that it's ticked again. Wake-ups that have been replaced by a later
+	 * wait of the same <code>Actor</code> are ignored.
+	 * 
+	 * @param 	a the <code>Actor</code> to wake up
+	 */
+	private void wake(Actor<?> a) {
+		int[] wakeTime = sleeping.get(a);
+		if (wakeTime == null || wakeTime[0] == AWAKE || wakeTime[0] > now) {
+			return; //not asleep, or asleep until later
+		}
+		wakeTime[0] = AWAKE;
+		a.setWaittime(0);
+		universe.resume(a);
+	}
+	
+	/**
+	 * Jumps <code>now</code> straight to the last tick before something happens, i.e. before an <code>Actor</code> 
+	 * stops waiting or an <code>Event</code> becomes due.
+	 * <p>
+	 * The <code>World</code> is told to skip the same number of ticks, so the outcome is the same as ticking through them one 
+	 * at a time. Nothing is skipped if something happens in the very next tick, or if nothing will ever happen again.
+	 * 
+	 * @see World#idleTicks()
+	 */
+	private void skipIdleTicks() {
+		//ticks before any Actor in the tick loop can do something
+		int idle = universe.idleTicks();
 		
+		//ticks before the next sleeping Actor wakes up. It wakes up at the start of the tick at its wake-up time
+		int wakeTime = wakeups.nextTime();
+		if (wakeTime != Integer.MAX_VALUE) {
+			idle = (wakeTime > now) ? Math.min(idle, (wakeTime - now - 1) / ticksize + 1) : 0;
+		}
+		
+		//ticks before the next Event is due. Events at or before now + ticksize happen in the next tick
+		int next = events.nextTime();
+		if (next != Integer.MAX_VALUE) {
+			idle = (next > now) ? Math.min(idle, (next - now - 1) / ticksize) : 0;
+		}
+		
+		if (idle > 0 && idle != Integer.MAX_VALUE) {
+			universe.skipTicks(idle);
+			now = now + idle * ticksize;
+		}
+	}
+	
+	/**
+	 * Turns the skip-ahead mode of this <code>Scheduler</code> on or off. 
+	 * <p>
+	 * In skip-ahead mode, each call to <code>tick()</code> first jumps over any ticks in which no <code>Actor</code> can act and 
+	 * no <code>Event</code> is due. This is useful for long simulations without a user interface, where nobody watches the
+	 * ticks go by.
+	 * 
+	 * @param 	skipAhead true to skip idle ticks, false to step one tick at a time
+	 * @see 	#skipAhead
+	 */
+	public void setSkipAhead(boolean skipAhead) {
+		this.skipAhead = skipAhead;
 	}
 	
 	/**
-	 * Sets the <code>tickSize</code> and instantiates the <code>events</code> queue.
+	 * Returns the current time of this <code>Scheduler</code>.
+	 * 
+	 * @return 	the current time
+	 * @see 	#now
+	 */
+	public int getTime() {
+		return now;
+	}
+	
+	/**
+	 * Returns the number of <code>Events</code> this <code>Scheduler</code> has executed so far. Cancelled 
+	 * <code>Events</code> are not counted.
+	 * 
+	 * @return 	the number of executed <code>Events</code>
+	 */
+	public long getEventsExecuted() {
+		return executed;
+	}
+	
+	/**
+	 * Makes this <code>Scheduler</code> record metrics of the <code>Events</code> it executes and of its queue, or stop 
+	 * recording them. No metrics are recorded by default.
+	 * 
+	 * @param 	metrics the metrics to record into, or null to stop recording
+	 * @see 	SchedulerMetrics
+	 */
+	public void setMetrics(SchedulerMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the metrics this <code>Scheduler</code> records.
+	 * 
+	 * @return 	the metrics, or null if this <code>Scheduler</code> doesn't record any
+	 */
+	public SchedulerMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Returns the number of <code>Events</code> that are still to happen, not counting cancelled ones.
+	 * 
+	 * @return 	the number of pending <code>Events</code>
+	 */
+	public int getPendingEvents() {
+		return events.size() - tombstones;
+	}
+	
+	/**
+	 * Sets the <code>tickSize</code> and instantiates the <code>events</code> queue as a <code>TimingWheelEventQueue</code>.
 	 * 
 	 * @author 	ram
 	 * @date 	19 February 2013
@@ -241,9 +634,30 @@ public class Scheduler {
 	 * @see {@link #world}
 	 */
 	public Scheduler(int ticksize, World w) {
+		this(ticksize, w, new TimingWheelEventQueue());
+	}
+	
+	/**
+	 * Sets the <code>tickSize</code> and the <code>events</code> queue to use.
+	 * 
+	 * @param 	ticksize the amount of time to be elapsed for each tick 
+	 * @param 	w the <code>World</code> to be ticked
+	 * @param 	queue an empty <code>EventQueue</code> to hold the scheduled <code>Events</code>, 
+	 * 			e.g. a <code>HeapEventQueue</code> to fall back on the binary heap
+	 * @pre 	<code>queue</code> should be empty
+	 * @see {@link #events}
+	 */
+	public Scheduler(int ticksize, World w, EventQueue queue) {
+		//Precondition 1: Ensure the queue is empty
+		assert (queue.isEmpty()):"the event queue of a new Scheduler must be empty";
+		
 		universe = w;
-		events = new PriorityQueue<Event>();
+		events = queue;
 		this.ticksize = ticksize;
+		wakeups = new TimingWheelEventQueue();
+		pending = new HashMap<Actor<?>, ArrayList<Event>>();
+		pool = new ArrayList<Event>();
+		sleeping = new HashMap<Actor<?>, int[]>();
 	}
 		
 }
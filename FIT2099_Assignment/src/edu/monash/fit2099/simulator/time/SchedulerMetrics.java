@@ -0,0 +1,194 @@
+package edu.monash.fit2099.simulator.time;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.monash.fit2099.simulator.util.Histogram;
+
+/**
+ * Metrics of a <code>Scheduler</code>: how many <code>Events</code> it executed for each class of <code>Action</code>,
+ * how long executing them took, and how many <code>Events</code> were pending in each tick.
+ * <p>
+ * A <code>Scheduler</code> only records metrics once it has been given a <code>SchedulerMetrics</code>, so that a
+ * <code>Scheduler</code> without one pays no more than a null check per <code>Event</code>. The metrics should be polled
+ * on the thread that ticks the <code>Scheduler</code>, between ticks.
+ * <p>
+ * Execution times are wall clock times in nanoseconds, as measured by <code>System.nanoTime()</code>.
+ *
+ * @author 	agent
+ * @see 	{@link Scheduler#setMetrics(SchedulerMetrics)}
+ * @see 	{@link Histogram}
+ */
+public class SchedulerMetrics {
+
+	/**
+	 * Execution times of the <code>Events</code> executed, by the class of their <code>Action</code>. The number of
+	 * <code>Events</code> executed for a class is the count of its histogram.
+	 */
+	private Map<Class<?>, Histogram> latencies;
+
+	/**The class of <code>Action</code> recorded last, and its histogram, to save a lookup when the same class comes up again*/
+	private Class<?> lastClass = null;
+	private Histogram lastLatency = null;
+
+	/**The number of pending <code>Events</code> in each tick, once the <code>Entities</code> have been ticked*/
+	private Histogram queueDepth;
+
+	/**The number of pending <code>Events</code> in the last tick*/
+	private int lastQueueDepth = 0;
+
+	/**The number of ticks recorded*/
+	private long ticks = 0;
+
+	/**
+	 * Constructor for empty <code>SchedulerMetrics</code>.
+	 */
+	public SchedulerMetrics() {
+		latencies = new HashMap<Class<?>, Histogram>();
+		queueDepth = new Histogram();
+	}
+
+	/**
+	 * Records the execution of an <code>Event</code>.
+	 *
+	 * @param 	action the class of the <code>Action</code> of the <code>Event</code>
+	 * @param 	nanos how long executing it took, in nanoseconds
+	 */
+	void recordExecution(Class<?> action, long nanos) {
+		if (action != lastClass) {
+			lastLatency = latencies.get(action);
+			if (lastLatency == null) {
+				lastLatency = new Histogram();
+				latencies.put(action, lastLatency);
+			}
+			lastClass = action;
+		}
+		lastLatency.record(Math.max(0, nanos));
+	}
+
+	/**
+	 * Records a tick, once its <code>Entities</code> have been ticked and before its <code>Events</code> are executed.
+	 *
+	 * @param 	pending the number of pending <code>Events</code>
+	 */
+	void recordTick(int pending) {
+		ticks++;
+		lastQueueDepth = pending;
+		queueDepth.record(pending);
+	}
+
+	/**
+	 * Returns the classes of the <code>Actions</code> that have been executed.
+	 *
+	 * @return 	an unmodifiable view of the classes of <code>Actions</code> executed
+	 */
+	public Set<Class<?>> getActionClasses() {
+		return Collections.unmodifiableSet(latencies.keySet());
+	}
+
+	/**
+	 * Returns the number of <code>Events</code> executed for a class of <code>Action</code>.
+	 *
+	 * @param 	action the class of <code>Action</code>
+	 * @return 	the number of <code>Events</code> executed, zero (0) if there were none
+	 */
+	public long getCount(Class<?> action) {
+		Histogram latency = latencies.get(action);
+		return latency == null ? 0 : latency.getCount();
+	}
+
+	/**
+	 * Returns the histogram of the execution times, in nanoseconds, of the <code>Events</code> executed for a class of
+	 * <code>Action</code>.
+	 *
+	 * @param 	action the class of <code>Action</code>
+	 * @return 	the histogram of execution times, or null if no <code>Event</code> was executed for <code>action</code>
+	 */
+	public Histogram getLatency(Class<?> action) {
+		return latencies.get(action);
+	}
+
+	/**
+	 * Returns the histogram of the number of pending <code>Events</code> in each tick, once the <code>Entities</code> have 
+	 * been ticked and before the <code>Events</code> due are executed.
+	 *
+	 * @return 	the histogram of queue depths
+	 */
+	public Histogram getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * Returns the number of pending <code>Events</code> in the last tick.
+	 *
+	 * @return 	the last queue depth
+	 */
+	public int getLastQueueDepth() {
+		return lastQueueDepth;
+	}
+
+	/**
+	 * Returns the number of ticks recorded.
+	 *
+	 * @return 	the number of ticks
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Forgets everything recorded so far, e.g. at the end of a warm-up.
+	 */
+	public void reset() {
+		latencies.clear();
+		lastClass = null;
+		lastLatency = null;
+		queueDepth.reset();
+		lastQueueDepth = 0;
+		ticks = 0;
+	}
+
+	/**
+	 * Returns the metrics as a table with a line for each class of <code>Action</code>, most executed first, and a line
+	 * for the queue depth. Times are in microseconds.
+	 *
+	 * @return 	the metrics, suitable for display
+	 */
+	public String report() {
+		List<Class<?>> classes = new ArrayList<Class<?>>(latencies.keySet());
+		Collections.sort(classes, new Comparator<Class<?>>() {
+			@Override
+			public int compare(Class<?> a, Class<?> b) {
+				return Long.compare(getCount(b), getCount(a));
+			}
+		});
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-24s %10s %10s %10s %10s %10s%n", "action", "count", "mean(us)", "p50(us)", "p99(us)", "max(us)"));
+		for (Class<?> c : classes) {
+			Histogram h = latencies.get(c);
+			report.append(String.format("%-24s %10d %10.2f %10.2f %10.2f %10.2f%n", name(c), h.getCount(), h.getMean() / 1000,
+					h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0, h.getMax() / 1000.0));
+		}
+		report.append(String.format("queue depth over %d ticks: mean=%.1f p50=%d p99=%d max=%d", ticks, queueDepth.getMean(),
+				queueDepth.getValueAtPercentile(50), queueDepth.getValueAtPercentile(99), queueDepth.getMax()));
+		return report.toString();
+	}
+
+	/**
+	 * Returns a short name for a class of <code>Action</code>. Anonymous classes don't have a simple name, so they are
+	 * named after the class they are declared in.
+	 *
+	 * @param 	c the class
+	 * @return 	the name of <code>c</code>
+	 */
+	private static String name(Class<?> c) {
+		String name = c.getSimpleName();
+		return name.isEmpty() ? c.getName().substring(c.getName().lastIndexOf('.') + 1) : name;
+	}
+}
@@ -0,0 +1,351 @@
+package edu.monash.fit2099.simulator.time;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * <code>EventQueue</code> implemented as a hierarchical timing wheel.
+ * <p>
+ * The wheel has <code>LEVELS</code> levels of <code>SLOTS</code> slots each. A slot in level 0 holds the <code>Events</code>
+ * of exactly one time, a slot in level 1 holds the <code>Events</code> of <code>SLOTS</code> consecutive times, and so on.
+ * When the cursor (<code>current</code>) enters the range of a higher level slot, the <code>Events</code> in that slot are
+ * cascaded down into the lower levels. <code>Events</code> that are further away than the whole wheel can cover wait in
+ * a small <code>PriorityQueue</code> (<code>overflow</code>) until the wheel comes round to them.
+ * <p>
+ * Adding an <code>Event</code> is O(1) and so is handing out an expired one, apart from sorting the <code>Events</code> of a
+ * level 0 slot by {@link Event#compareTo(Event)} once, when the cursor reaches it. This keeps the ordering of the
+ * <code>Scheduler</code> by <code>priority</code> within a time.
+ *
+ * @author 	agent
+ * @see 	{@link HeapEventQueue}
+ */
+public class TimingWheelEventQueue implements EventQueue {
+
+	/**Number of bits of the time used to index the slots of one level*/
+	private static final int BITS = 6;
+
+	/**Number of slots in each level of the wheel*/
+	private static final int SLOTS = 1 << BITS;
+
+	/**Mask to extract the slot index of a level from a (shifted) time*/
+	private static final int MASK = SLOTS - 1;
+
+	/**Number of levels of the wheel. The wheel covers 2^(BITS * LEVELS) times before <code>Events</code> go to the <code>overflow</code>*/
+	private static final int LEVELS = 4;
+
+	/**
+	 * The slots of the wheel. <code>wheels[l][i]</code> is slot <code>i</code> of level <code>l</code>.
+	 */
+	private ArrayList<Event>[][] wheels;
+
+	/**
+	 * <code>Events</code> too far in the future for the wheel, sorted by time.
+	 */
+	private PriorityQueue<Event> overflow;
+
+	/**
+	 * The time of the level 0 slot under the cursor. All <code>Events</code> before this time have been handed out.
+	 */
+	private int current;
+
+	/**
+	 * True if the slot under the cursor has been sorted and is being handed out
+	 */
+	private boolean draining;
+
+	/**
+	 * Index of the next <code>Event</code> to hand out from the slot under the cursor, if <code>draining</code>
+	 */
+	private int drainIndex;
+
+	/**Number of pending <code>Events</code>*/
+	private int size;
+
+	/**
+	 * Constructor for an empty <code>TimingWheelEventQueue</code> with its cursor at time zero (0).
+	 */
+	public TimingWheelEventQueue() {
+		@SuppressWarnings({"unchecked", "rawtypes"}) //an array of a generic type can only be made raw
+		ArrayList<Event>[][] slots = new ArrayList[LEVELS][SLOTS];
+		wheels = slots;
+		for (int level = 0; level < LEVELS; level++) {
+			for (int i = 0; i < SLOTS; i++) {
+				wheels[level][i] = new ArrayList<Event>();
+			}
+		}
+		overflow = new PriorityQueue<Event>();
+		current = 0;
+		draining = false;
+		size = 0;
+	}
+
+	@Override
+	public void offer(Event e) {
+		size++;
+		place(e);
+	}
+
+	@Override
+	public Event pollDue(int limit) {
+		while (size > 0) {
+			ArrayList<Event> slot = wheels[0][current & MASK];
+
+			if (!draining) {
+				if (current > limit) {
+					return null; //nothing more is due yet
+				}
+				if (slot.isEmpty()) {
+					//skip the empty slots, but never beyond the limit, so that Events offered later still fit in
+					jumpTo(Math.min(nextCandidate(), limit + 1));
+					continue;
+				}
+				//sort the slot once so that Events of higher priority come out first. Sorting allocates for bigger slots, 
+				//so leave alone the slots that are in order already, as they are when all their Actions have the same priority
+				if (!isSorted(slot)) {
+					Collections.sort(slot);
+				}
+				drainIndex = 0;
+				draining = true;
+			}
+
+			if (drainIndex < slot.size()) {
+				Event e = slot.get(drainIndex);
+				slot.set(drainIndex, null); //don't hang on to Events that have been handed out
+				drainIndex++;
+				size--;
+				return e;
+			}
+
+			//the slot is exhausted, move on to the next one
+			slot.clear();
+			draining = false;
+			jumpTo(current + 1);
+		}
+
+		//the queue is empty, so the cursor can jump straight past the limit
+		if (draining) {
+			wheels[0][current & MASK].clear();
+			draining = false;
+		}
+		if (current <= limit) {
+			jumpTo(limit + 1);
+		}
+		return null;
+	}
+
+	@Override
+	public int nextTime() {
+		if (size == 0) {
+			return Integer.MAX_VALUE;
+		}
+
+		//the slot under the cursor may hold Events offered late, so look at all of them
+		ArrayList<Event> slot = wheels[0][current & MASK];
+		int start = draining ? drainIndex : 0;
+		if (start < slot.size()) {
+			return earliest(slot, start);
+		}
+
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = BITS * level;
+			for (int i = ((current >>> shift) & MASK) + 1; i < SLOTS; i++) {
+				if (!wheels[level][i].isEmpty()) {
+					//a level 0 slot holds a single time, a higher level slot a range of times
+					return earliest(wheels[level][i], 0);
+				}
+			}
+		}
+		return overflow.peek().getTime();
+	}
+
+	@Override
+	public int purge() {
+		int removed = 0;
+		for (int level = 0; level < LEVELS; level++) {
+			for (int i = 0; i < SLOTS; i++) {
+				//Events before the drainIndex of the slot under the cursor have already been handed out
+				int start = (level == 0 && draining && i == (current & MASK)) ? drainIndex : 0;
+				removed += purge(wheels[level][i], start);
+			}
+		}
+		for (Iterator<Event> it = overflow.iterator(); it.hasNext();) {
+			if (it.next().isCancelled()) {
+				it.remove();
+				removed++;
+			}
+		}
+		size -= removed;
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Puts an <code>Event</code> in the slot that covers its time.
+	 * <p>
+	 * <code>Events</code> due before the cursor are put in the slot under the cursor, ahead of the <code>Events</code> that are
+	 * actually due at that time since they compare as earlier.
+	 *
+	 * @param e the <code>Event</code> to place
+	 */
+	private void place(Event e) {
+		int t = Math.max(e.getTime(), current);
+
+		if (t == current && draining) {
+			//the slot under the cursor is already sorted, so keep it sorted
+			insertSorted(wheels[0][current & MASK], e);
+			return;
+		}
+
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = BITS * (level + 1);
+			if ((t >>> shift) == (current >>> shift)) { //t lies within the current span of this level
+				wheels[level][(t >>> (BITS * level)) & MASK].add(e);
+				return;
+			}
+		}
+		overflow.offer(e);
+	}
+
+	/**
+	 * Inserts an <code>Event</code> into the part of the slot under the cursor that has not been handed out yet,
+	 * after any <code>Events</code> that compare equal to it.
+	 *
+	 * @param slot the slot under the cursor
+	 * @param e the <code>Event</code> to insert
+	 */
+	private void insertSorted(ArrayList<Event> slot, Event e) {
+		int lo = drainIndex;
+		int hi = slot.size();
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (slot.get(mid).compareTo(e) <= 0) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		slot.add(lo, e);
+	}
+
+	/**
+	 * Removes the cancelled <code>Events</code> of a slot, from index <code>start</code> onwards, keeping the order of the
+	 * others.
+	 * 
+	 * @param 	slot the slot to purge
+	 * @param 	start index of the first <code>Event</code> to consider
+	 * @return 	the number of <code>Events</code> removed
+	 */
+	private int purge(ArrayList<Event> slot, int start) {
+		int kept = start;
+		for (int i = start; i < slot.size(); i++) {
+			Event e = slot.get(i);
+			if (!e.isCancelled()) {
+				slot.set(kept++, e);
+			}
+		}
+		int removed = slot.size() - kept;
+		while (slot.size() > kept) {
+			slot.remove(slot.size() - 1);
+		}
+		return removed;
+	}
+
+	/**
+	 * Returns true if the <code>Events</code> of a slot are in the order in which they are to be handed out.
+	 * 
+	 * @param 	slot the slot to check
+	 * @return 	true if and only if no <code>Event</code> of <code>slot</code> compares as later than the next one
+	 */
+	private boolean isSorted(ArrayList<Event> slot) {
+		for (int i = 1; i < slot.size(); i++) {
+			if (slot.get(i - 1).compareTo(slot.get(i)) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the earliest time of the <code>Events</code> in a slot, from index <code>start</code> onwards.
+	 * 
+	 * @param 	slot the slot to search
+	 * @param 	start index of the first <code>Event</code> to consider
+	 * @pre 	<code>start</code> is a valid index of <code>slot</code>
+	 * @return 	the earliest time of the <code>Events</code> considered
+	 */
+	private int earliest(ArrayList<Event> slot, int start) {
+		int time = Integer.MAX_VALUE;
+		for (int i = start; i < slot.size(); i++) {
+			time = Math.min(time, slot.get(i).getTime());
+		}
+		return time;
+	}
+
+	/**
+	 * Returns the earliest time at which the next pending <code>Event</code> could be. This is the time of the next 
+	 * non-empty level 0 slot or else the start time of the next non-empty slot in a higher level.
+	 * 
+	 * @pre 	the queue is not empty, not <code>draining</code>, and the slot under the cursor is empty
+	 * @return 	a time after <code>current</code> that is no later than the next pending <code>Event</code>
+	 */
+	private int nextCandidate() {
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = BITS * level;
+			int base = (current >>> (shift + BITS)) << (shift + BITS); //start of the current span of this level
+			for (int i = ((current >>> shift) & MASK) + 1; i < SLOTS; i++) {
+				if (!wheels[level][i].isEmpty()) {
+					return base | (i << shift);
+				}
+			}
+		}
+		return overflow.peek().getTime();
+	}
+
+	/**
+	 * Moves the cursor forward to <code>target</code>, cascading the higher level slots that the cursor enters down 
+	 * into the lower levels.
+	 * 
+	 * @param 	target the new time of the cursor
+	 * @pre 	<code>target</code> is after <code>current</code>
+	 * @pre 	there are no pending <code>Events</code> due before <code>target</code>
+	 */
+	private void jumpTo(int target) {
+		int previous = current;
+		current = target;
+		
+		if ((previous >>> BITS) == (target >>> BITS)) {
+			return; //still within the same level 0 rotation
+		}
+
+		if ((previous >>> (BITS * LEVELS)) != (target >>> (BITS * LEVELS))) {
+			//the whole wheel has turned, bring in the Events from the overflow that now fit
+			while (!overflow.isEmpty() && (overflow.peek().getTime() >>> (BITS * LEVELS)) == (target >>> (BITS * LEVELS))) {
+				place(overflow.poll());
+			}
+		}
+
+		//cascade from the top down so that Events can fall more than one level
+		for (int level = LEVELS - 1; level >= 1; level--) {
+			int shift = BITS * level;
+			if ((previous >>> shift) != (target >>> shift)) {
+				ArrayList<Event> slot = wheels[level][(target >>> shift) & MASK];
+				for (Event e : slot) {
+					place(e);
+				}
+				slot.clear();
+			}
+		}
+	}
+}
@@ -1,24 +1,38 @@
 /*
  * Change log 
  * 2017-01-20:	Paragraph tags to the java doc (asel)
+ * 2026-10-16:	Added reverseView and forEachKey, which don't copy the list of keys
+ * 2026-10-16:	Keys are swap-removed from the buckets of their values in constant time, and empty buckets are recycled
+ * 2026-10-17:	Buckets that have been handed out by reverseView are not recycled, so a view never shows another value's keys
  */
 package edu.monash.fit2099.simulator.util;
 
+import java.util.AbstractList;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Bidirectional multimap.  Maps keys (K) onto values (V).  The keys must be unique but the 
  * values need not be.  Both the Apache BidiMap and the Guava Bimap require unique keys and
  * values. 
  * <p>
- * Internally, this is done by maintaining two HashMaps: one mapping K onto V, the other
- * mapping V onto Lists of K.  This means that insertion and deletion code needs to be aware that
- * an extra step may be needed to maintain consistency between the two private maps.
+ * Internally, this is done by maintaining two HashMaps: one mapping each K onto a <code>Node</code> that holds its V, 
+ * the other mapping V onto a <code>Bucket</code> of the <code>Nodes</code> of its Ks.  This means that insertion and 
+ * deletion code needs to be aware that an extra step may be needed to maintain consistency between the two private maps.
+ * <p>
+ * Every <code>Node</code> knows its index in its <code>Bucket</code>, so a key is taken out of its <code>Bucket</code> 
+ * by moving the last key of the <code>Bucket</code> into its place. Moving a key to another value therefore takes 
+ * constant time however many keys share the old value, but the keys of a value are in no particular order. 
+ * <code>Buckets</code> that run empty are kept for the next new value instead of being thrown away.
  * <p>
  * Implements the Map<K,V> interface, largely by acting as a wrapper for the forward
  * version of the map.
@@ -34,16 +48,107 @@ import java.util.Set;
 // TODO: add some exception handling for the love of heaven!
 
 public class BiMultiMap<K,V> implements Map<K,V> {
-	private Map<K,V> kToV;
-	private Map<V, List<K>> vToK;
+	
+	/**
+	 * A K -> V association, and where K is in the <code>Bucket</code> of V.
+	 */
+	private static final class Node<K,V> implements Map.Entry<K,V> {
+		private final K key;
+		private V value;
+		
+		/**The index of this <code>Node</code> in the <code>Bucket</code> of its value*/
+		private int index;
+		
+		private Node(K key) {
+			this.key = key;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException("use BiMultiMap.put to change the value of a key");
+		}
+	}
+	
+	/**
+	 * The <code>Nodes</code> of the keys that map onto a value. Doubles as a read-only view of the keys.
+	 */
+	private static final class Bucket<K,V> extends AbstractList<K> {
+		private Node<K,V>[] nodes;
+		private int size;
+		
+		/**If or not this <code>Bucket</code> has been handed out as a view, in which case it mustn't be recycled*/
+		private boolean viewed;
+		
+		@SuppressWarnings({"unchecked", "rawtypes"}) //an array of a generic type can only be made raw
+		private Bucket() {
+			nodes = new Node[2];
+			size = 0;
+		}
+		
+		/**
+		 * Adds a <code>Node</code> at the end of this <code>Bucket</code>.
+		 * 
+		 * @param n the <code>Node</code> to add
+		 */
+		private void add(Node<K,V> n) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, size * 2);
+			}
+			n.index = size;
+			nodes[size++] = n;
+		}
+		
+		/**
+		 * Takes a <code>Node</code> out of this <code>Bucket</code> by moving the last one into its place.
+		 * 
+		 * @param n the <code>Node</code> to remove
+		 * @pre <code>n</code> is in this <code>Bucket</code>
+		 */
+		private void remove(Node<K,V> n) {
+			Node<K,V> last = nodes[--size];
+			nodes[n.index] = last;
+			last.index = n.index;
+			nodes[size] = null;
+		}
+
+		@Override
+		public K get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return nodes[index].key;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+	
+	private Map<K, Node<K,V>> kToV;
+	private Map<V, Bucket<K,V>> vToK;
+	
+	/**Empty <code>Buckets</code> waiting to be used for new values*/
+	private ArrayList<Bucket<K,V>> spareBuckets;
 	
 	/**
 	 * Default constructor.  Instantiates an empty <code>BiMultiMap</code>.
 	 * 
 	 */
 	public BiMultiMap() {
-		kToV = new HashMap<K,V>();
-		vToK = new HashMap<V, List<K>>();
+		kToV = new HashMap<K, Node<K,V>>();
+		vToK = new HashMap<V, Bucket<K,V>>();
+		spareBuckets = new ArrayList<Bucket<K,V>>();
 	}
 	
 	/**
@@ -51,38 +156,57 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * <p>
 	 * If newKey already exists in the <code>BiMultiMap</code>, mapping (say) onto oldVal,
 	 * then the reverse mapping oldVal -> newKey is removed and replaced by the 
-	 * reverse mapping newVal -> newKey.
+	 * reverse mapping newVal -> newKey. This takes constant time.
 	 * 
 	 * @param newKey key of the new association
 	 * @param newVal value of the new association
 	 */
 	public V put(K newKey, V newVal) {
-		if (kToV.containsKey(newKey))
-		{
+		Node<K,V> n = kToV.get(newKey);
+		if (n == null) {
+			n = new Node<K,V>(newKey);
+			kToV.put(newKey, n);
+		}
+		else if (n.value == newVal || (n.value != null && n.value.equals(newVal))) {
+			return newVal; //nothing to move
+		}
+		else {
 			// remove current reverse association
-			V oldVal = kToV.get(newKey);
-			List<K> oldAssoc = vToK.get(oldVal);
-			oldAssoc.remove(newKey);
-			
-			// handle removal of last mapping to this value
-			if (oldAssoc.isEmpty())
-				vToK.remove(oldVal);
-		}
-		kToV.put(newKey, newVal);
+			unlink(n);
+		}
+		n.value = newVal;
 		
 		// insert reverse mapping
-		if (vToK.containsKey(newVal))
-			vToK.get(newVal).add(newKey);
-		else {
-			// value already exists, so add new key to its list of inverses
-			ArrayList<K> newList = new ArrayList<K>();
-			newList.add(newKey);
-			vToK.put(newVal, newList);
+		Bucket<K,V> bucket = vToK.get(newVal);
+		if (bucket == null) {
+			// the value is new, so give it a bucket, preferably one that has been used before
+			bucket = spareBuckets.isEmpty() ? new Bucket<K,V>() : spareBuckets.remove(spareBuckets.size() - 1);
+			vToK.put(newVal, bucket);
 		}
+		bucket.add(n);
 		
 		return newVal;
 	}
 	
+	/**
+	 * Takes the <code>Node</code> of a key out of the <code>Bucket</code> of its value, and recycles the <code>Bucket</code>
+	 * if it runs empty, unless it has been handed out as a view.
+	 * 
+	 * @param n the <code>Node</code> of the key
+	 */
+	private void unlink(Node<K,V> n) {
+		Bucket<K,V> bucket = vToK.get(n.value);
+		bucket.remove(n);
+		
+		// handle removal of last mapping to this value
+		if (bucket.size == 0) {
+			vToK.remove(n.value);
+			if (!bucket.viewed) { //a view of it may still be held, and must not start showing the keys of another value
+				spareBuckets.add(bucket);
+			}
+		}
+	}
+	
 	/**
 	 * Returns the key that maps onto a particular value.
 	 * <p>
@@ -90,19 +214,51 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * @return 	the key that maps onto target, if such a mapping exists, otherwise null
 	 */
 	public ArrayList<K> reverseLookup(V target) {
-		if (vToK.containsKey(target)) {
-			// ArrayList doesn't implement Cloneable.
-			// Note: this is a new list, but it contains the same references as the old list.
+		Bucket<K,V> bucket = vToK.get(target);
+		if (bucket != null) {
+			// Note: this is a new list, but it contains the same references as the bucket.
 			// Client code can still munge the Ks and Vs themselves, but it can't munge the BiMultiMap.
-			ArrayList<K> newList = new ArrayList<K>();
-			for (K k: vToK.get(target)) {
-				newList.add(k);
-			}
-			return newList;
+			return new ArrayList<K>(bucket);
 		}
 		return null;
 	}
 
+	/**
+	 * Returns a read-only view of the keys that map onto a particular value, without copying them.
+	 * <p>
+	 * The view is only valid until the keys of <code>target</code> change: it should not be kept, nor iterated over while
+	 * keys are put or removed. Use <code>reverseLookup</code> for that. Once the last key of <code>target</code> is
+	 * removed the view stays empty, even if <code>target</code> is later given keys again, and it never shows the keys of
+	 * another value.
+	 * 
+	 * @param 	target the value to look up
+	 * @return 	a view of the keys that map onto <code>target</code>, which is empty if there are none
+	 * @see 	#reverseLookup(Object)
+	 */
+	public List<K> reverseView(V target) {
+		Bucket<K,V> bucket = vToK.get(target);
+		if (bucket == null) {
+			return Collections.emptyList();
+		}
+		bucket.viewed = true; //so that it isn't recycled for another value
+		return bucket;
+	}
+	
+	/**
+	 * Performs an action on each key that maps onto a particular value, without copying the keys.
+	 * 
+	 * @param 	target the value to look up
+	 * @param 	action the action to perform, which must not put or remove keys
+	 */
+	public void forEachKey(V target, Consumer<? super K> action) {
+		Bucket<K,V> bucket = vToK.get(target);
+		if (bucket != null) {
+			for (int i = 0; i < bucket.size; i++) {
+				action.accept(bucket.nodes[i].key);
+			}
+		}
+	}
+
 	@Override
 	/**
 	 * @see Map.clear()
@@ -126,7 +282,37 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * @see Map.entrySet()
 	 */
 	public Set<java.util.Map.Entry<K, V>> entrySet() {
-		return kToV.entrySet();
+		return new AbstractSet<java.util.Map.Entry<K, V>>() {
+			@Override
+			public Iterator<java.util.Map.Entry<K, V>> iterator() {
+				final Iterator<Node<K,V>> nodes = kToV.values().iterator();
+				return new Iterator<java.util.Map.Entry<K, V>>() {
+					private Node<K,V> last = null;
+					
+					@Override
+					public boolean hasNext() {
+						return nodes.hasNext();
+					}
+
+					@Override
+					public java.util.Map.Entry<K, V> next() {
+						last = nodes.next();
+						return last;
+					}
+
+					@Override
+					public void remove() {
+						nodes.remove();
+						unlink(last);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return kToV.size();
+			}
+		};
 	}
 
 	@Override
@@ -134,7 +320,8 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * @see Map.get()
 	 */
 	public V get(Object key) {
-		return kToV.get(key);
+		Node<K,V> n = kToV.get(key);
+		return n == null ? null : n.value;
 	}
 
 	@Override
@@ -150,7 +337,8 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * @see Map.keySet()
 	 */
 	public Set<K> keySet() {
-		return kToV.keySet();
+		// read only, since removing a key through it would leave it in the bucket of its value
+		return Collections.unmodifiableSet(kToV.keySet());
 	}
 
 	@Override
@@ -168,9 +356,12 @@ public class BiMultiMap<K,V> implements Map<K,V> {
 	 * @see Map.remove()
 	 */
 	public V remove(Object key) {
-		V val = kToV.remove(key);
-		vToK.get(val).remove(key);
-		return val;
+		Node<K,V> n = kToV.remove(key);
+		if (n == null) {
+			return null;
+		}
+		unlink(n);
+		return n.value;
 	}
 
 	@Override
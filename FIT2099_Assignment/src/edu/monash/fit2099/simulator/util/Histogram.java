@@ -0,0 +1,180 @@
+package edu.monash.fit2099.simulator.util;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative <code>long</code> values, such as latencies in nanoseconds, with buckets laid out the way
+ * an HDR histogram lays them out.
+ * <p>
+ * Values below <code>SUB_BUCKETS</code> get a bucket each. Above that, every power of two is split into
+ * <code>SUB_BUCKETS / 2</code> buckets of equal width, so that any recorded value is known to within 1/64 (about 1.6%)
+ * of itself however large it is. Recording a value is a few bit operations and an array increment, and the histogram
+ * has a fixed size, so it never allocates after it has been created.
+ * <p>
+ * Values larger than <code>MAX_VALUE</code> are recorded as <code>MAX_VALUE</code>.
+ *
+ * @author 	agent
+ * @see 	{@link edu.monash.fit2099.simulator.time.SchedulerMetrics}
+ */
+public class Histogram {
+
+	/**Number of bits of a value that pick its sub-bucket*/
+	private static final int SUB_BITS = 7;
+
+	/**Number of buckets for the values below <code>SUB_BUCKETS</code>, which are recorded exactly*/
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	/**Number of buckets each power of two at or above <code>SUB_BUCKETS</code> is split into*/
+	private static final int HALF = SUB_BUCKETS / 2;
+
+	/**The largest value that is told apart from larger ones, about 68 seconds in nanoseconds*/
+	public static final long MAX_VALUE = (1L << 36) - 1;
+
+	/**The number of values recorded in each bucket*/
+	private long[] counts;
+
+	/**The number of values recorded*/
+	private long count;
+
+	/**The smallest and the largest value recorded*/
+	private long min, max;
+
+	/**The sum of the values recorded, for the mean*/
+	private double sum;
+
+	/**
+	 * Constructor for an empty <code>Histogram</code>.
+	 */
+	public Histogram() {
+		counts = new long[indexOf(MAX_VALUE) + 1];
+		reset();
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param 	value the value to record
+	 * @pre 	<code>value</code> should not be negative
+	 */
+	public void record(long value) {
+		//Precondition 1: Ensure the value can be put in a bucket
+		assert (value >= 0):"a Histogram can't record negative values";
+
+		if (value > MAX_VALUE) {
+			value = MAX_VALUE;
+		}
+		counts[indexOf(value)]++;
+		count++;
+		sum += value;
+		if (value < min) {
+			min = value;
+		}
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 *
+	 * @return 	the number of values recorded
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the smallest value recorded, or zero (0) if nothing has been recorded.
+	 *
+	 * @return 	the smallest value
+	 */
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * Returns the largest value recorded, or zero (0) if nothing has been recorded.
+	 *
+	 * @return 	the largest value
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the mean of the values recorded, or zero (0) if nothing has been recorded.
+	 *
+	 * @return 	the mean value
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * Returns the value below or at which a given percentage of the recorded values lie. The value is the largest value of
+	 * its bucket, so it may be a little higher than the recorded value, but never higher than <code>getMax()</code>.
+	 *
+	 * @param 	percentile the percentage, e.g. 99.9
+	 * @return 	the value at <code>percentile</code>, or zero (0) if nothing has been recorded
+	 * @pre 	<code>percentile</code> should be between 0 and 100
+	 */
+	public long getValueAtPercentile(double percentile) {
+		//Precondition 1: Ensure the percentile is a percentage
+		assert (percentile >= 0 && percentile <= 100):"percentile must be between 0 and 100";
+
+		if (count == 0) {
+			return 0;
+		}
+		long wanted = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= wanted) {
+				return Math.min(highestOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Forgets all the values recorded.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+		sum = 0;
+	}
+
+	/**
+	 * Returns the index of the bucket of a value.
+	 *
+	 * @param 	value the value
+	 * @pre 	<code>value</code> is between zero (0) and <code>MAX_VALUE</code>
+	 * @return 	the index of the bucket <code>value</code> is recorded in
+	 */
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		//shift the value down so that its top SUB_BITS bits are left, which lie between HALF and SUB_BUCKETS
+		int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+		return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >>> shift) - HALF);
+	}
+
+	/**
+	 * Returns the largest value that is recorded in a bucket.
+	 *
+	 * @param 	index the index of the bucket
+	 * @return 	the largest value of the bucket
+	 */
+	private static long highestOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKETS) / HALF + 1;
+		long lowest = (long) ((index - SUB_BUCKETS) % HALF + HALF) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
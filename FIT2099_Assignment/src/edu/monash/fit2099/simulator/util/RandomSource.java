@@ -0,0 +1,107 @@
+package edu.monash.fit2099.simulator.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * A seeded source of random numbers for a <code>World</code>, so that a run of a simulation can be replayed exactly.
+ * <p>
+ * The <code>RandomSource</code> has a root <code>SplittableRandom</code> seeded from configuration. Every 
+ * <code>Entity</code> that is ticked has a stream of its own, split off the root in the order in which the 
+ * <code>Entities</code> are first ticked, and <code>get()</code> returns that stream on the thread that ticks it. Outside a tick
+ * <code>get()</code> returns the root. Each stream is only used by one thread, so <code>Entities</code> ticked in parallel 
+ * don't contend on one generator, and they draw the same numbers as they would in a sequential tick.
+ * <p>
+ * Behaviours should take their random numbers from <code>get()</code> instead of <code>Math.random()</code>.
+ * 
+ * @author 	agent
+ * @see 	{@link edu.monash.fit2099.simulator.space.World#getRandom()}
+ */
+public class RandomSource {
+	
+	/**
+	 * The name of the system property that sets the seed of new <code>RandomSources</code>
+	 * 
+	 * @see #defaultSeed()
+	 */
+	public static final String SEED_PROPERTY = "fit2099.seed";
+	
+	/**
+	 * The stream of the <code>Entity</code> the current thread is ticking, or null if it isn't ticking one
+	 */
+	private static final ThreadLocal<SplittableRandom> ticking = new ThreadLocal<SplittableRandom>();
+	
+	/**The seed of this <code>RandomSource</code>*/
+	private long seed;
+	
+	/**The generator that all streams are split off*/
+	private SplittableRandom root;
+	
+	/**
+	 * Constructor for a <code>RandomSource</code> with the given seed.
+	 * 
+	 * @param 	seed the seed
+	 */
+	public RandomSource(long seed) {
+		this.seed = seed;
+		this.root = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Constructor for a <code>RandomSource</code> with the <code>defaultSeed()</code>.
+	 */
+	public RandomSource() {
+		this(defaultSeed());
+	}
+	
+	/**
+	 * Returns the seed set by the <code>SEED_PROPERTY</code> system property, or a new seed every time if it isn't set.
+	 * 
+	 * @return 	a seed for a <code>RandomSource</code>
+	 */
+	public static long defaultSeed() {
+		String property = System.getProperty(SEED_PROPERTY);
+		if (property != null) {
+			return Long.parseLong(property.trim());
+		}
+		return System.nanoTime() ^ 0x5DEECE66DL;
+	}
+	
+	/**
+	 * Returns the seed of this <code>RandomSource</code>. Running the same simulation with a <code>RandomSource</code> 
+	 * with this seed replays it.
+	 * 
+	 * @return 	the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Returns the generator to use on the current thread: the stream of the <code>Entity</code> being ticked, or the root
+	 * generator of this <code>RandomSource</code> outside a tick.
+	 * 
+	 * @return 	a generator that only the current thread uses
+	 */
+	public SplittableRandom get() {
+		SplittableRandom stream = ticking.get();
+		return stream != null ? stream : root;
+	}
+	
+	/**
+	 * Splits a new stream off the root generator. Streams must be split in the same order in every run.
+	 * 
+	 * @return 	a new, independent stream
+	 */
+	public SplittableRandom split() {
+		return root.split();
+	}
+	
+	/**
+	 * Makes <code>get()</code> return a stream on the current thread, while it ticks an <code>Entity</code>.
+	 * 
+	 * @param 	stream the stream of the <code>Entity</code>, or null when the tick is over
+	 */
+	public static void enter(SplittableRandom stream) {
+		ticking.set(stream); //rather than remove(), which would make the next set() allocate a new entry
+	}
+}
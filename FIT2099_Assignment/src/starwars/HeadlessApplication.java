@@ -0,0 +1,132 @@
+package starwars;
+
+import edu.monash.fit2099.simulator.time.BatchRunner;
+import edu.monash.fit2099.simulator.time.Scheduler;
+import edu.monash.fit2099.simulator.time.SchedulerMetrics;
+import edu.monash.fit2099.simulator.userInterface.MessageRenderer;
+
+/**
+ * Driver class that runs the Star Wars world without a user interface and without the human controlled player, 
+ * and reports how fast it ran. Contains nothing but a main().
+ * <p>
+ * Usage: <code>java starwars.HeadlessApplication [ticks] [--size=WxH] [--seed=n] [--until-quiet] [--verbose] [--metrics]</code>
+ * <ul>
+ * 	<li><code>ticks</code> is the largest number of ticks to run for, 1000 by default</li>
+ * 	<li><code>--size=WxH</code> makes the grid <code>W</code> columns wide and <code>H</code> rows high, 10x10 by default</li>
+ * 	<li><code>--seed=n</code> seeds the random numbers of the world, to replay a run. The seed of every run is reported</li>
+ * 	<li><code>--until-quiet</code> stops the run early once nothing is left to happen</li>
+ * 	<li><code>--verbose</code> prints the messages of the <code>SWEntities</code> instead of dropping them</li>
+ * 	<li><code>--metrics</code> prints the <code>SchedulerMetrics</code> of the run, by class of <code>Action</code></li>
+ * 	<li><code>--help</code> prints the usage and exits</li>
+ * </ul>
+ * Any other option, or a value that isn't a number, is rejected with the usage.
+ * 
+ * @author agent
+ * @see Application
+ * @see BatchRunner
+ */
+public class HeadlessApplication {
+	
+	/**How to run the <code>HeadlessApplication</code>, printed for <code>--help</code> and for bad arguments*/
+	private static final String USAGE = 
+			"Usage: java starwars.HeadlessApplication [ticks] [--size=WxH] [--seed=n] [--until-quiet] [--verbose] [--metrics] [--help]";
+	
+	public static void main(String args[]) {
+		
+		int ticks = 1000;
+		boolean untilQuiet = false;
+		boolean verbose = false;
+		boolean metrics = false;
+		Long seed = null;
+		int width = 10;
+		int height = 10;
+		for (String arg : args) {
+			try {
+				if (arg.startsWith("--seed=")) {
+					seed = Long.parseLong(arg.substring("--seed=".length()));
+				}
+				else if (arg.startsWith("--size=")) {
+					String[] size = arg.substring("--size=".length()).split("x");
+					if (size.length != 2) {
+						reject("--size should be two numbers such as 100x50, not " + arg);
+					}
+					width = Integer.parseInt(size[0]);
+					height = Integer.parseInt(size[1]);
+				}
+				else if (arg.equals("--until-quiet")) {
+					untilQuiet = true;
+				}
+				else if (arg.equals("--verbose")) {
+					verbose = true;
+				}
+				else if (arg.equals("--metrics")) {
+					metrics = true;
+				}
+				else if (arg.equals("--help")) {
+					System.out.println(USAGE);
+					return;
+				}
+				else if (arg.startsWith("-")) {
+					reject("unknown option " + arg);
+				}
+				else {
+					ticks = Integer.parseInt(arg);
+				}
+			}
+			catch (NumberFormatException e) { //e.g. a misspelt number, which would otherwise end the run with a stack trace
+				reject("not a number in " + arg);
+			}
+		}
+		
+		final SWWorld world = new SWWorld(width, height);
+		if (seed != null) {
+			world.setSeed(seed);
+		}
+		
+		final Scheduler theScheduler = new Scheduler(1, world);
+		SWActor.setScheduler(theScheduler);
+		if (metrics) {
+			theScheduler.setMetrics(new SchedulerMetrics());
+		}
+		
+		// set up the world without Luke, since nobody is there to control him
+		final boolean print = verbose;
+		world.initializeWorld(new MessageRenderer() {
+			@Override
+			public void render(String message) {
+				if (print) {
+					System.out.println(message);
+				}
+			}
+		}, false);
+		
+		BatchRunner.StopCondition quiet = null;
+		if (untilQuiet) {
+			//nothing is scheduled and no SWEntity will ever do anything on a tick
+			quiet = new BatchRunner.StopCondition() {
+				@Override
+				public boolean isMet() {
+					return theScheduler.getPendingEvents() == 0 && world.idleTicks() == Integer.MAX_VALUE;
+				}
+			};
+		}
+		
+		BatchRunner runner = new BatchRunner(theScheduler);
+		runner.run(ticks, quiet);
+		System.out.println("seed=" + world.getRandom().getSeed() + " " + runner.report());
+		if (metrics) {
+			System.out.println(theScheduler.getMetrics().report());
+		}
+	}
+	
+	/**
+	 * Stops the <code>HeadlessApplication</code> because of a bad argument, printing what was wrong and the usage.
+	 * 
+	 * @param 	problem what was wrong with the arguments
+	 */
+	private static void reject(String problem) {
+		System.err.println(problem);
+		System.err.println(USAGE);
+		System.exit(2);
+	}
+}
@@ -12,15 +12,24 @@
  * 2017-01-20: Added missing Javadocs and improved comments (asel)
  * 2017-02-08: Removed the removeEventsMethod as it's no longer required.
  * 			   Removed the tick and act methods for SWActor as they are never called
+ * 2026-10-16: Pending events of a SWActor are cancelled when it dies
+ * 2026-10-16: Move commands are created once per direction and reused
+ * 2026-10-16: Changes of team and capabilities are reported to the entity manager, which indexes them.
+ * 			   The set of capabilities is created in the constructor, since hasCapability used to throw without it
+ * 2026-10-16: Changes of hitpoints are reported to the entity manager, which logs them for its change listeners.
+ * 2026-10-16: resetMoveCommands asks for exits with hasExit, which doesn't make the locations beyond them.
+ * 2026-10-16: Changes of symbol are reported to the entity manager as well.
  */
 package starwars;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 
 import edu.monash.fit2099.gridworld.Grid.CompassBearing;
 import edu.monash.fit2099.simulator.matter.Actor;
 import edu.monash.fit2099.simulator.matter.Affordance;
+import edu.monash.fit2099.simulator.space.Direction;
 import edu.monash.fit2099.simulator.space.Location;
 import edu.monash.fit2099.simulator.time.Scheduler;
 import edu.monash.fit2099.simulator.userInterface.MessageRenderer;
@@ -53,6 +62,9 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 	/**A set of <code>Capabilities</code> of this <code>SWActor</code>*/
 	private HashSet<Capability> capabilities;
 	
+	/**The <code>Move</code> of this <code>SWActor</code> in each direction it has moved in, so that moving doesn't create a new one every time*/
+	private HashMap<Direction, Move> moves = new HashMap<Direction, Move>();
+	
 	/**
 	 * Constructor for the <code>SWActor</code>.
 	 * <p>
@@ -81,6 +93,7 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 		this.hitpoints = hitpoints;
 		this.world = world;
 		this.symbol = "@";
+		this.capabilities = new HashSet<Capability>();
 		
 		//SWActors are given the Attack affordance hence they can be attacked
 		SWAffordance attack = new Attack(this, m);
@@ -97,6 +110,23 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 		scheduler = s;
 	}
 	
+	/**
+	 * Returns the <code>Move</code> of this <code>SWActor</code> in the direction <code>d</code>. The same <code>Move</code> 
+	 * is returned every time for the same direction, since a <code>Move</code> doesn't change once it has been created.
+	 * 
+	 * @param 	d the direction to move in
+	 * @return 	a <code>Move</code> in the direction <code>d</code>
+	 * @see 	starwars.actions.Move
+	 */
+	protected Move getMove(Direction d) {
+		Move move = moves.get(d);
+		if (move == null) {
+			move = new Move(d, messageRenderer, world);
+			moves.put(d, move);
+		}
+		return move;
+	}
+	
 	/**
 	 * Returns the team to which this <code>SWActor</code> belongs to.
 	 * <p>
@@ -162,23 +192,35 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 	 *
 	 * @param 	team the new team of this <code>SWActor</code>
 	 * @see 	#team
+	 * @see 	SWWorld#getTeamIndex()
 	 */
 	public void setTeam(Team team) {
 		this.team = team;
+		SWWorld.getEntitymanager().reindex(this); //file this SWActor under its new team
 	}
 
 	/**
 	 * Method insists damage on this <code>SWActor</code> by reducing a 
 	 * certain amount of <code>damage</code> from this <code>SWActor</code>'s <code>hitpoints</code>
 	 * 
+	 * <p>
+	 * If this <code>SWActor</code> dies of the damage, all its pending events are cancelled.
+	 * 
 	 * @param 	damage the amount of <code>hitpoints</code> to be reduced
 	 * @pre 	<code>damage</code> should not be negative
+	 * @see 	Scheduler#cancelAll(Actor)
 	 */
 	@Override
 	public void takeDamage(int damage) {
 		//Precondition 1: Ensure the damage is not negative. Negative damage could increase the SWActor's hitpoints
 		assert (damage >= 0)	:"damage on SWActor must not be negative";
+		boolean wasDead = isDead();
 		this.hitpoints -= damage;
+		SWWorld.getEntitymanager().changed(this); //whatever shows the hitpoints has to catch up
+		
+		if (!wasDead && isDead() && scheduler != null) {
+			scheduler.cancelAll(this); //a dead SWActor can't do anything it had planned
+		}
 	}
 
 	/**
@@ -219,6 +261,7 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 	@Override
 	public void setSymbol(String s) {
 		symbol = s;
+		SWWorld.getEntitymanager().changed(this); //whatever shows the symbol has to catch up
 	}
 	
 	/**
@@ -239,6 +282,30 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 		return capabilities.contains(c);
 	}
 	
+	/**
+	 * Gives this <code>SWActor</code> a <code>Capability</code>.
+	 * 
+	 * @param 	c the <code>Capability</code> to add
+	 * @see 	SWWorld#getCapabilityIndex()
+	 */
+	protected void addCapability(Capability c) {
+		if (capabilities.add(c)) {
+			SWWorld.getEntitymanager().reindex(this);
+		}
+	}
+	
+	/**
+	 * Takes a <code>Capability</code> away from this <code>SWActor</code>.
+	 * 
+	 * @param 	c the <code>Capability</code> to remove
+	 * @see 	SWWorld#getCapabilityIndex()
+	 */
+	protected void removeCapability(Capability c) {
+		if (capabilities.remove(c)) {
+			SWWorld.getEntitymanager().reindex(this);
+		}
+	}
+	
 	/**
 	 * This method will poll this <code>SWActor</code>'s current <code>Location loc</code>
 	 * to find potential exits, and replaces all the instances of <code>Move</code>
@@ -261,8 +328,8 @@ public abstract class SWActor extends Actor<SWActionInterface> implements SWEnti
 		
 		// add new movement possibilities
 		for (CompassBearing d: CompassBearing.values()) { 														  
-			if (loc.getNeighbour(d) != null) //if there is an exit from the current location in direction d, add that as a Move command
-				newActions.add(new Move(d,messageRenderer, world)); 
+			if (loc.hasExit(d)) //if there is an exit from the current location in direction d, add that as a Move command
+				newActions.add(getMove(d)); 
 		}
 		
 		// replace command list of this SWActor
@@ -56,12 +56,39 @@ public class SWEntity extends Entity implements SWEntityInterface {
 	@Override
 	public void setSymbol(String s) {
 		symbol = s;
+		SWWorld.getEntitymanager().changed(this); //whatever shows the symbol has to catch up
 	}
 
 	@Override
 	public boolean hasCapability(Capability c) {
 		return capabilities.contains(c);
 	}
+	
+	/**
+	 * Gives this <code>SWEntity</code> a <code>Capability</code>. Once this <code>SWEntity</code> may be on the map, 
+	 * <code>Capabilities</code> should be changed through this method rather than <code>capabilities</code>, so that the 
+	 * index of <code>Capabilities</code> stays up to date.
+	 * 
+	 * @param 	c the <code>Capability</code> to add
+	 * @see 	SWWorld#getCapabilityIndex()
+	 */
+	protected void addCapability(Capability c) {
+		if (capabilities.add(c)) {
+			SWWorld.getEntitymanager().reindex(this);
+		}
+	}
+	
+	/**
+	 * Takes a <code>Capability</code> away from this <code>SWEntity</code>.
+	 * 
+	 * @param 	c the <code>Capability</code> to remove
+	 * @see 	#addCapability(Capability)
+	 */
+	protected void removeCapability(Capability c) {
+		if (capabilities.remove(c)) {
+			SWWorld.getEntitymanager().reindex(this);
+		}
+	}
 
 	@Override
 	public int getHitpoints() {
@@ -76,6 +103,7 @@ public class SWEntity extends Entity implements SWEntityInterface {
 	 */
 	public void setHitpoints(int p) {
 		hitpoints = p;
+		SWWorld.getEntitymanager().changed(this); //whatever shows the hitpoints has to catch up
 	}
 	
 	@Override
@@ -83,6 +111,7 @@ public class SWEntity extends Entity implements SWEntityInterface {
 		//Precondition 1: Ensure that the damage is not negative
 		assert (damage >= 0)	:"damage on SWEntity must not be negative";
 		this.hitpoints -= damage;
+		SWWorld.getEntitymanager().changed(this);
 	}
 	
 }
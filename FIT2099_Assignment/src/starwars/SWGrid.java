@@ -14,6 +14,7 @@ import edu.monash.fit2099.simulator.space.LocationMaker;
  * 2017-02-02: 	Removed the render method and the location width attributes. The rendering of the map
  * 				and displaying it is now the job of the UI. The dependency with EntityManager package was hence removed
  * 				and this resulted in a simpler SWGrid class (asel) 
+ * 2026-10-16:	SWLocations start out as desert Terrain, so the grid doesn't need to describe each one it makes lazily
  */
 public class SWGrid extends Grid<SWLocation> {
 
@@ -24,8 +25,20 @@ public class SWGrid extends Grid<SWLocation> {
 	 * @param factory the maker of the <code>SWLocation</code>s
 	 */
 	public SWGrid(LocationMaker<SWLocation> factory) {
-		super(10,10,factory);
+		this(10, 10, factory);
 	}
 	
+	/**
+	 * Constructor for a <code>SWGrid</code> of any size.
+	 * 
+	 * @param 	width the number of columns
+	 * @param 	height the number of rows
+	 * @param 	factory the maker of the <code>SWLocation</code>s
+	 * @pre 	<code>width</code> and <code>height</code> should be greater than zero (0)
+	 */
+	public SWGrid(int width, int height, LocationMaker<SWLocation> factory) {
+		super(width, height, factory);
+	}
+
 
 }
@@ -1,8 +1,5 @@
 package starwars;
 
-import java.util.HashMap;
-
-import edu.monash.fit2099.simulator.space.Direction;
 import edu.monash.fit2099.simulator.space.Location;
 import edu.monash.fit2099.simulator.space.LocationMaker;
 
@@ -12,23 +9,19 @@ import edu.monash.fit2099.simulator.space.LocationMaker;
  * <code>SWLocation</code>s are not restricted to 8-way movements. <I added this.Is this right? Asel>
  * 
  * @author ram
+ * @see Terrain
+ */
+/*
+ * Change log
+ * 2026-10-16: The symbols and descriptions are kept in a Terrain shared by all the SWLocations of its kind, and the
+ * 			   descriptions are made from the coordinates when they are asked for
  */
-
 public class SWLocation extends Location {
 	
-	/**A character that represents the <code>SWLocation</code>, suitable for display*/
-	private char symbol;
-	
-	/**A character that represents an empty space in this <code>SWLocation</code>, suitable for display.
-	 * By default empty spaces in all <code>SWLocation</code>s are represented by a '.'
+	/**The kind of ground of this <code>SWLocation</code>, which holds its symbols and the templates of its descriptions.
+	 * By default <code>SWLocation</code>s are open desert
 	 */
-	private char emptySymbol = '.';
-	
-	/**A longer string that describes this <code>SWLocation</code>*/
-	private String longDescription;
-	
-	/**A shorter string that describes this <code>SWLocation</code>*/
-	private String shortDescription;
+	private Terrain terrain = Terrain.DESERT;
 	
 	
 	/**
@@ -54,10 +47,10 @@ public class SWLocation extends Location {
 	}
 
 	/**
-	 * Constructor for <code>SWLocation</code>. Will initialize the list of neighboring references
+	 * Constructor for <code>SWLocation</code>. The neighbours are worked out by the <code>Grid</code> the 
+	 * <code>SWLocation</code> is placed in, so nothing is allocated for them.
 	 */
 	public SWLocation() {
-		neighbours = new HashMap<Direction, Location>();
 	}
 	
 	/** 
@@ -72,6 +65,31 @@ public class SWLocation extends Location {
 	}
 	
 	
+	/**
+	 * Returns the <code>Terrain</code> of this <code>SWLocation</code>.
+	 * 
+	 * @return 	the <code>Terrain</code> of this <code>SWLocation</code>
+	 * @see 	#terrain
+	 */
+	public Terrain getTerrain() {
+		return terrain;
+	}
+	
+	/**
+	 * Sets the <code>Terrain</code> of this <code>SWLocation</code>, which gives it the symbols and descriptions of 
+	 * that kind of ground.
+	 * 
+	 * @param 	t the new <code>Terrain</code> of this <code>SWLocation</code>
+	 * @pre 	<code>t</code> should not be null
+	 * @see 	#terrain
+	 */
+	public void setTerrain(Terrain t) {
+		//Precondition 1: Ensure there is a Terrain
+		assert (t != null):"a SWLocation must have a Terrain";
+		
+		terrain = t;
+	}
+	
 	/**
 	 * Returns a character that represents this <code>SWLocation</code>. 
 	 * <p>
@@ -79,10 +97,10 @@ public class SWLocation extends Location {
 	 * 
 	 * @author 	ram
 	 * @return 	a char representing this <code>SWLocation</code>.
-	 * @see 	#symbol
+	 * @see 	Terrain#getSymbol()
 	 */
 	public char getSymbol() {
-		return symbol;
+		return terrain.getSymbol();
 	}
 	
 	/**
@@ -90,13 +108,16 @@ public class SWLocation extends Location {
 	 * <p>
 	 * The Views use this symbols to query for resources(images of texture) and for display, hence although not a must
 	 * symbols of different types of <code>SWLocations</code> are preferably unique.
+	 * <p>
+	 * This gives this <code>SWLocation</code> a <code>Terrain</code> of its own. Use <code>setTerrain</code> to change 
+	 * many <code>SWLocations</code>.
 	 * 
 	 * @author 	ram
 	 * @param 	c the new character symbol of this <code>SWLocation</code>
-	 * @see 	#symbol
+	 * @see 	#setTerrain(Terrain)
 	 */
 	public void setSymbol(char c) {
-		symbol = c;
+		terrain = terrain.withSymbol(c);
 	}
 
 	/**
@@ -106,10 +127,10 @@ public class SWLocation extends Location {
 	 * 
 	 * @author 	dsquire
 	 * @return 	a char representing empty space at this <code>SWLocation</code>
-	 * @see 	#emptySymbol
+	 * @see 	Terrain#getEmptySymbol()
 	 */
 	public char getEmptySymbol() {
-		return emptySymbol;
+		return terrain.getEmptySymbol();
 	}
 	
 	/**
@@ -117,13 +138,15 @@ public class SWLocation extends Location {
 	 * character <code>c</code>
 	 * <p>
 	 * <code>emptySymbols</code> are particularly used by text based Views (user interfaces)
+	 * <p>
+	 * This gives this <code>SWLocation</code> a <code>Terrain</code> of its own.
 	 * 
 	 * @author 	dsquire
 	 * @param 	c the character to set the empty symbol to
-	 * @see 	#emptySymbol
+	 * @see 	#setTerrain(Terrain)
 	 */
 	public void setEmptySymbol(char c) {
-		emptySymbol = c;
+		terrain = terrain.withEmptySymbol(c);
 	}
 	
 
@@ -132,12 +155,14 @@ public class SWLocation extends Location {
 	 * <p>
 	 * Long description <code>s</code> should describe this <code>SWLocation</code> in general and 
 	 * should not contain any information regarding what this location contains.
+	 * <p>
+	 * This gives this <code>SWLocation</code> a <code>Terrain</code> of its own.
 	 * 
 	 * @param 	s the new long description string of this <code>SWLocation</code>
-	 * @see 	#longDescription
+	 * @see 	#setTerrain(Terrain)
 	 */
 	public void setLongDescription(String s) {
-		longDescription = s;
+		terrain = terrain.withLongDescription(s);
 	}
 	
 	/**
@@ -145,32 +170,34 @@ public class SWLocation extends Location {
 	 * <p>
 	 * Short description <code>s</code> should describe this <code>SWLocation</code> in general and 
 	 * should not contain any information regarding what this location contains.
+	 * <p>
+	 * This gives this <code>SWLocation</code> a <code>Terrain</code> of its own.
 	 * 
 	 * @param 	s the new short description string of this <code>SWLocation</code>
-	 * @see 	#longDescription
+	 * @see 	#setTerrain(Terrain)
 	 */
 	public void setShortDescription(String s) {
-		shortDescription = s;
+		terrain = terrain.withShortDescription(s);
 	}
 	
 	/**
-	 * Returns the long description of this <code>SWLocation</code>.
+	 * Returns the long description of this <code>SWLocation</code>, made from its coordinates.
 	 * 
 	 * @return a string that describes this <code>SWLocation</code>
-	 * @see #longDescription
+	 * @see Terrain#longDescription(int, int)
 	 */
 	public String getLongDescription() {
-		return longDescription;
+		return terrain.longDescription(getX(), getY());
 	}
 	
 	/**
-	 * Returns the short description of this <code>SWLocation</code>.
+	 * Returns the short description of this <code>SWLocation</code>, made from its coordinates.
 	 *  
 	 * @return a string that describes this <code>SWLocation</code>
-	 * @see #shortDescription
+	 * @see Terrain#shortDescription(int, int)
 	 */
 	public String getShortDescription() {
-		return shortDescription;
+		return terrain.shortDescription(getX(), getY());
 	}
 	
 
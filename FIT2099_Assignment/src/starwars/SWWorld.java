@@ -1,7 +1,14 @@
 package starwars;
 
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.monash.fit2099.gridworld.SpatialQueries;
 import edu.monash.fit2099.gridworld.Grid.CompassBearing;
+import edu.monash.fit2099.simulator.matter.EntityIndex;
+import edu.monash.fit2099.simulator.matter.EntityInterface;
 import edu.monash.fit2099.simulator.matter.EntityManager;
+import edu.monash.fit2099.simulator.matter.TickPartitioner;
 import edu.monash.fit2099.simulator.space.Direction;
 import edu.monash.fit2099.simulator.space.Location;
 import edu.monash.fit2099.simulator.space.World;
@@ -20,6 +27,14 @@ import starwars.entities.actors.*;
  * 2017-02-02:  Render method was removed from Middle Earth
  * 				Displaying the Grid is now handled by the TextInterface rather 
  * 				than by the Grid or MiddleWorld classes (asel)
+ * 2026-10-16:	Added setParallelTick(ForkJoinPool) to tick the SWActors in stripes of the grid in parallel
+ * 2026-10-16:	initializeWorld can leave out the player, for the headless runner
+ * 2026-10-16:	Added getSpatialQueries() for radius, rectangle and nearest neighbour queries on the grid
+ * 2026-10-16:	The entity manager keeps indexes of the SWEntities on the map by team and by capability
+ * 2026-10-16:	The size of the grid can be chosen, so that large worlds can be simulated
+ * 2026-10-16:	initializeWorld leaves the default terrain to the grid, which makes the locations lazily, so it only touches special places
+ * 2026-10-16:	The special places are given a shared Terrain instead of their own descriptions and symbols
+ * 2026-10-17:	moveEntity makes the neighbouring location if the grid hasn't made it yet
  */
 public class SWWorld extends World {
 	
@@ -31,13 +46,54 @@ public class SWWorld extends World {
 	/**The entity manager of the world which keeps track of <code>SWEntities</code> and their <code>SWLocation</code>s*/
 	private static final EntityManager<SWEntityInterface, SWLocation> entityManager = new EntityManager<SWEntityInterface, SWLocation>();
 	
+	/**The <code>SWActors</code> on the map by their <code>Team</code>*/
+	private static final EntityIndex<Team, SWEntityInterface> teams = entityManager.addIndex(new EntityIndex.Keys<SWEntityInterface, Team>() {
+		@Override
+		public void keysOf(SWEntityInterface e, Collection<Team> keys) {
+			if (e instanceof SWActor && ((SWActor) e).getTeam() != null) {
+				keys.add(((SWActor) e).getTeam());
+			}
+		}
+	});
+	
+	/**The <code>SWEntities</code> on the map by each of their <code>Capabilities</code>*/
+	private static final EntityIndex<Capability, SWEntityInterface> capabilities = entityManager.addIndex(new EntityIndex.Keys<SWEntityInterface, Capability>() {
+		@Override
+		public void keysOf(SWEntityInterface e, Collection<Capability> keys) {
+			for (Capability c : Capability.values()) {
+				if (e.hasCapability(c)) {
+					keys.add(c);
+				}
+			}
+		}
+	});
+	
+	/**Radius, rectangle and nearest neighbour queries on the grid, created the first time they're asked for*/
+	private SpatialQueries<SWEntityInterface, SWLocation> spatialQueries = null;
+	
 	/**
 	 * Constructor of <code>SWWorld</code>. This will initialize the <code>SWLocationMaker</code>
 	 * and the grid.
 	 */
 	public SWWorld() {
+		this(10, 10);
+	}
+	
+	/**
+	 * Constructor of a <code>SWWorld</code> with a grid of any size. The places set up by <code>initializeWorld</code> 
+	 * stay in the top left hand corner of a larger grid, and the rest of it is desert.
+	 * 
+	 * @param 	width the number of columns of the grid
+	 * @param 	height the number of rows of the grid
+	 * @pre 	<code>width</code> and <code>height</code> should be at least 10, since that's the size of the places set up 
+	 * 			by <code>initializeWorld</code>
+	 */
+	public SWWorld(int width, int height) {
+		//Precondition 1: Ensure the world has room for the places of initializeWorld
+		assert (width >= 10 && height >= 10):"a SWWorld should be at least 10 by 10";
+		
 		SWLocation.SWLocationMaker factory = SWLocation.getMaker();
-		myGrid = new SWGrid(factory);
+		myGrid = new SWGrid(width, height, factory);
 		space = myGrid;
 		
 	}
@@ -70,33 +126,35 @@ public class SWWorld extends World {
 	 * @param 	iface a MessageRenderer to be passed onto newly-created entities
 	 */
 	public void initializeWorld(MessageRenderer iface) {
+		initializeWorld(iface, true);
+	}
+	
+	/**
+	 * Set up the world, setting descriptions for locations and placing items and actors
+	 * on the grid, with or without the human controlled player.
+	 * <p>
+	 * A world without a player doesn't wait for input from the user, so it can be run without a user interface.
+	 * 
+	 * @param 	iface a MessageRenderer to be passed onto newly-created entities
+	 * @param 	withPlayer if or not to place Luke, the human controlled player
+	 * @see 	HeadlessApplication
+	 */
+	public void initializeWorld(MessageRenderer iface, boolean withPlayer) {
 		SWLocation loc;
-		// Set default location string
-		for (int row=0; row < height(); row++) {
-			for (int col=0; col < width(); col++) {
-				loc = myGrid.getLocationByCoordinates(col, row);
-				loc.setLongDescription("SWWorld (" + col + ", " + row + ")");
-				loc.setShortDescription("SWWorld (" + col + ", " + row + ")");
-				loc.setSymbol('.');				
-			}
-		}
+		// Locations are open desert unless they are given another Terrain, see Terrain.DESERT
 		
 		
 		// BadLands
 		for (int row = 5; row < 8; row++) {
 			for (int col = 4; col < 7; col++) {
 				loc = myGrid.getLocationByCoordinates(col, row);
-				loc.setLongDescription("Badlands (" + col + ", " + row + ")");
-				loc.setShortDescription("Badlands (" + col + ", " + row + ")");
-				loc.setSymbol('b');
+				loc.setTerrain(Terrain.BADLANDS);
 			}
 		}
 		
 		//Ben's Hut
 		loc = myGrid.getLocationByCoordinates(5, 6);
-		loc.setLongDescription("Ben's Hut");
-		loc.setShortDescription("Ben's Hut");
-		loc.setSymbol('H');
+		loc.setTerrain(Terrain.BENS_HUT);
 		
 		Direction [] patrolmoves = {CompassBearing.EAST, CompassBearing.EAST,
                 CompassBearing.SOUTH,
@@ -114,28 +172,25 @@ public class SWWorld extends World {
 		loc = myGrid.getLocationByCoordinates(5,9);
 		
 		// Luke
-		Player luke = new Player(Team.GOOD, 100, iface, this);
-		luke.setShortDescription("Luke");
-		entityManager.setLocation(luke, loc);
-		luke.resetMoveCommands(loc);
+		if (withPlayer) {
+			Player luke = new Player(Team.GOOD, 100, iface, this);
+			luke.setShortDescription("Luke");
+			entityManager.setLocation(luke, loc);
+			luke.resetMoveCommands(loc);
+		}
 		
 		
 		// Beggar's Canyon 
 		for (int col = 3; col < 8; col++) {
 			loc = myGrid.getLocationByCoordinates(col, 8);
-			loc.setShortDescription("Beggar's Canyon (" + col + ", " + 8 + ")");
-			loc.setLongDescription("Beggar's Canyon  (" + col + ", " + 8 + ")");
-			loc.setSymbol('C');
-			loc.setEmptySymbol('='); // to represent sides of the canyon
+			loc.setTerrain(Terrain.BEGGARS_CANYON); // its empty symbol represents the sides of the canyon
 		}
 		
 		// Moisture Farms
 		for (int row = 0; row < 10; row++) {
 			for (int col = 8; col < 10; col++) {
 				loc = myGrid.getLocationByCoordinates(col, row);
-				loc.setLongDescription("Moisture Farm (" + col + ", " + row + ")");
-				loc.setShortDescription("Moisture Farm (" + col + ", " + row + ")");
-				loc.setSymbol('F');
+				loc.setTerrain(Terrain.MOISTURE_FARM);
 				
 				// moisture farms have reservoirs
 				entityManager.setLocation(new Reservoir(iface), loc);				
@@ -202,6 +257,38 @@ public class SWWorld extends World {
 		return where.hasExit(whichDirection);
 	}
 	
+	/**
+	 * Makes this <code>SWWorld</code> tick its <code>SWEntities</code> in parallel on a pool, in one stripe of rows of the
+	 * grid per thread of the pool. Human controlled <code>SWActors</code> wait for the user, so they are still ticked one 
+	 * after the other on the thread that ticks the world.
+	 * 
+	 * @param 	pool the pool to tick on, or null to tick sequentially again
+	 * @see 	World#setParallelTick(ForkJoinPool, TickPartitioner)
+	 */
+	public void setParallelTick(ForkJoinPool pool) {
+		if (pool == null) {
+			setParallelTick(null, null);
+			return;
+		}
+		
+		final TickPartitioner<EntityInterface, Location> stripes = myGrid.stripes(pool.getParallelism());
+		setParallelTick(pool, new TickPartitioner<EntityInterface, Location>() {
+			
+			@Override
+			public int partitions() {
+				return stripes.partitions();
+			}
+
+			@Override
+			public int partitionOf(EntityInterface e, Location loc) {
+				if (e instanceof SWActor && ((SWActor) e).isHumanControlled()) {
+					return SEQUENTIAL;
+				}
+				return stripes.partitionOf(e, loc);
+			}
+		});
+	}
+	
 	/**
 	 * Accessor for the grid.
 	 * 
@@ -211,6 +298,20 @@ public class SWWorld extends World {
 	public SWGrid getGrid() {
 		return myGrid;
 	}
+	
+	/**
+	 * Returns the <code>SpatialQueries</code> of the <code>SWEntities</code> on the grid, e.g. to find the nearest
+	 * <code>SWActor</code> of another team without walking the grid one neighbour at a time.
+	 * 
+	 * @return 	the <code>SpatialQueries</code> of this <code>SWWorld</code>
+	 * @see 	{@link SpatialQueries}
+	 */
+	public SpatialQueries<SWEntityInterface, SWLocation> getSpatialQueries() {
+		if (spatialQueries == null) {
+			spatialQueries = new SpatialQueries<SWEntityInterface, SWLocation>(myGrid, entityManager);
+		}
+		return spatialQueries;
+	}
 
 	/**
 	 * Move an actor in a direction.
@@ -222,12 +323,12 @@ public class SWWorld extends World {
 	public void moveEntity(SWActor a, Direction whichDirection) {
 		
 		//get the neighboring location in whichDirection
-		Location loc = entityManager.whereIs(a).getNeighbour(whichDirection);
+		Location loc = entityManager.whereIs(a).materializeNeighbour(whichDirection); //the grid may not have made it yet
 		
 		// Base class unavoidably stores superclass references, so do a checked downcast here
 		if (loc instanceof SWLocation)
 			//perform the move action by setting the new location to the the neighboring location
-			entityManager.setLocation(a, (SWLocation) entityManager.whereIs(a).getNeighbour(whichDirection));
+			entityManager.setLocation(a, (SWLocation) loc);
 	}
 
 	/**
@@ -252,6 +353,27 @@ public class SWWorld extends World {
 		return SWWorld.getEntitymanager();
 	}
 
+	/**
+	 * Returns the index of the <code>SWActors</code> on the map by their <code>Team</code>, e.g. to find the enemies of a 
+	 * <code>SWActor</code> without looking at every <code>SWEntity</code>.
+	 * 
+	 * @return 	the index by <code>Team</code>
+	 * @see 	{@link SWActor#setTeam(Team)}
+	 */
+	public static EntityIndex<Team, SWEntityInterface> getTeamIndex() {
+		return teams;
+	}
+	
+	/**
+	 * Returns the index of the <code>SWEntities</code> on the map by each of their <code>Capabilities</code>, e.g. to find 
+	 * the weapons lying around. <code>SWEntities</code> carried by a <code>SWActor</code> are not on the map.
+	 * 
+	 * @return 	the index by <code>Capability</code>
+	 */
+	public static EntityIndex<Capability, SWEntityInterface> getCapabilityIndex() {
+		return capabilities;
+	}
+
 	/**
 	 * Returns the <code>EntityManager</code> which keeps track of the <code>SWEntities</code> and
 	 * <code>SWLocations</code> in <code>SWWorld</code>.
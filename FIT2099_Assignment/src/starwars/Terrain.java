@@ -0,0 +1,188 @@
+package starwars;
+
+import java.util.Locale;
+
+/**
+ * The kind of ground a <code>SWLocation</code> is, e.g. desert or badlands.
+ * <p>
+ * A <code>Terrain</code> holds everything the <code>SWLocations</code> of its kind have in common: the symbols that show
+ * them and the templates of their descriptions. It is shared by all of them, so that a <code>SWLocation</code> only holds
+ * its <code>Terrain</code> and a large map doesn't hold two strings for every <code>SWLocation</code>. The descriptions are
+ * only made, from the coordinates of the <code>SWLocation</code>, when they are asked for.
+ * <p>
+ * The templates are format strings that are given the <code>x</code> and <code>y</code> coordinates, in that order,
+ * e.g. <code>"Badlands (%d, %d)"</code>. A template that doesn't use them, e.g. <code>"Ben's Hut"</code>, is the
+ * description as it stands.
+ * <p>
+ * A <code>Terrain</code> doesn't change. Changing the symbol or a description of a single <code>SWLocation</code> gives it
+ * a <code>Terrain</code> of its own.
+ *
+ * @author 	agent
+ * @see 	SWLocation#setTerrain(Terrain)
+ */
+public final class Terrain {
+
+	/**Open desert, which is what a <code>SWLocation</code> is unless the <code>SWWorld</code> says otherwise*/
+	public static final Terrain DESERT = new Terrain("SWWorld", '.', '.', "SWWorld (%d, %d)", "SWWorld (%d, %d)");
+
+	/**The Badlands*/
+	public static final Terrain BADLANDS = new Terrain("Badlands", 'b', '.', "Badlands (%d, %d)", "Badlands (%d, %d)");
+
+	/**Ben Kenobi's hut, which is a single place, so its description doesn't need the coordinates*/
+	public static final Terrain BENS_HUT = new Terrain("Ben's Hut", 'H', '.', "Ben's Hut", "Ben's Hut");
+
+	/**Beggar's Canyon, whose empty spaces show the sides of the canyon*/
+	public static final Terrain BEGGARS_CANYON = new Terrain("Beggar's Canyon", 'C', '=', "Beggar's Canyon (%d, %d)",
+			"Beggar's Canyon  (%d, %d)");
+
+	/**A moisture farm*/
+	public static final Terrain MOISTURE_FARM = new Terrain("Moisture Farm", 'F', '.', "Moisture Farm (%d, %d)",
+			"Moisture Farm (%d, %d)");
+
+	/**The name of this <code>Terrain</code>*/
+	private final String name;
+
+	/**A character that represents the <code>SWLocations</code> of this <code>Terrain</code>, suitable for display*/
+	private final char symbol;
+
+	/**A character that represents an empty space in the <code>SWLocations</code> of this <code>Terrain</code>, suitable for display*/
+	private final char emptySymbol;
+
+	/**The template of the short description of the <code>SWLocations</code> of this <code>Terrain</code>*/
+	private final String shortTemplate;
+
+	/**The template of the long description of the <code>SWLocations</code> of this <code>Terrain</code>*/
+	private final String longTemplate;
+
+	/**
+	 * Constructor for a <code>Terrain</code>.
+	 *
+	 * @param 	name the name of the <code>Terrain</code>
+	 * @param 	symbol the character that represents the <code>SWLocations</code> of the <code>Terrain</code>
+	 * @param 	emptySymbol the character that represents an empty space in them
+	 * @param 	shortTemplate the template of their short description
+	 * @param 	longTemplate the template of their long description
+	 * @pre 	the templates should be format strings that take no more than two integers, the coordinates
+	 */
+	public Terrain(String name, char symbol, char emptySymbol, String shortTemplate, String longTemplate) {
+		this.name = name;
+		this.symbol = symbol;
+		this.emptySymbol = emptySymbol;
+		this.shortTemplate = shortTemplate;
+		this.longTemplate = longTemplate;
+	}
+
+	/**
+	 * Returns the name of this <code>Terrain</code>.
+	 *
+	 * @return 	the name of this <code>Terrain</code>
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the character that represents the <code>SWLocations</code> of this <code>Terrain</code>.
+	 *
+	 * @return 	the symbol of this <code>Terrain</code>
+	 */
+	public char getSymbol() {
+		return symbol;
+	}
+
+	/**
+	 * Returns the character that represents an empty space in the <code>SWLocations</code> of this <code>Terrain</code>.
+	 *
+	 * @return 	the empty symbol of this <code>Terrain</code>
+	 */
+	public char getEmptySymbol() {
+		return emptySymbol;
+	}
+
+	/**
+	 * Returns the short description of a <code>SWLocation</code> of this <code>Terrain</code>.
+	 *
+	 * @param 	x the West/East coordinate of the <code>SWLocation</code>
+	 * @param 	y the North/South coordinate of the <code>SWLocation</code>
+	 * @return 	the short description made from the template
+	 */
+	public String shortDescription(int x, int y) {
+		return describe(shortTemplate, x, y);
+	}
+
+	/**
+	 * Returns the long description of a <code>SWLocation</code> of this <code>Terrain</code>.
+	 *
+	 * @param 	x the West/East coordinate of the <code>SWLocation</code>
+	 * @param 	y the North/South coordinate of the <code>SWLocation</code>
+	 * @return 	the long description made from the template
+	 */
+	public String longDescription(int x, int y) {
+		return describe(longTemplate, x, y);
+	}
+
+	/**
+	 * Returns a copy of this <code>Terrain</code> with another symbol.
+	 *
+	 * @param 	c the new symbol
+	 * @return 	a new <code>Terrain</code> like this one but for its symbol
+	 */
+	Terrain withSymbol(char c) {
+		return new Terrain(name, c, emptySymbol, shortTemplate, longTemplate);
+	}
+
+	/**
+	 * Returns a copy of this <code>Terrain</code> with another empty symbol.
+	 *
+	 * @param 	c the new empty symbol
+	 * @return 	a new <code>Terrain</code> like this one but for its empty symbol
+	 */
+	Terrain withEmptySymbol(char c) {
+		return new Terrain(name, symbol, c, shortTemplate, longTemplate);
+	}
+
+	/**
+	 * Returns a copy of this <code>Terrain</code> whose short description is always <code>s</code>.
+	 *
+	 * @param 	s the new short description
+	 * @return 	a new <code>Terrain</code> like this one but for its short description
+	 */
+	Terrain withShortDescription(String s) {
+		return new Terrain(name, symbol, emptySymbol, literal(s), longTemplate);
+	}
+
+	/**
+	 * Returns a copy of this <code>Terrain</code> whose long description is always <code>s</code>.
+	 *
+	 * @param 	s the new long description
+	 * @return 	a new <code>Terrain</code> like this one but for its long description
+	 */
+	Terrain withLongDescription(String s) {
+		return new Terrain(name, symbol, emptySymbol, shortTemplate, literal(s));
+	}
+
+	/**
+	 * Fills in the coordinates of a template.
+	 *
+	 * @param 	template the template, or null
+	 * @param 	x the West/East coordinate
+	 * @param 	y the North/South coordinate
+	 * @return 	the description, or null if <code>template</code> is null
+	 */
+	private static String describe(String template, int x, int y) {
+		if (template == null || template.indexOf('%') < 0) {
+			return template; //nothing to fill in, so there's no need to format
+		}
+		return String.format(Locale.ROOT, template, x, y); //digits the same way whatever the locale of the user
+	}
+
+	/**
+	 * Returns the template of a description that doesn't depend on the coordinates.
+	 *
+	 * @param 	s the description, or null
+	 * @return 	a template that formats to <code>s</code>
+	 */
+	private static String literal(String s) {
+		return s == null ? null : s.replace("%", "%%");
+	}
+}
@@ -19,6 +19,7 @@ import starwars.actions.Take;
  * 2017/02/08 takeDamage method was overridden to change it's descriptions when the Swords hitpoints are zero or less
  * 			  the takeDamage method will also remove the CHOPPER and WEAPON capabilities from the Blaster as it should not be possible
  * 			  to attack or chop with a broken Blaster (asel)
+ * 2026/10/16 The WEAPON capability is removed through removeCapability, so that the index of capabilities is kept up to date
  */
 public class Blaster extends SWEntity {
 
@@ -87,7 +88,7 @@ public class Blaster extends SWEntity {
 			this.shortDescription = "an empty blaster";
 			this.longDescription  = "An empty blaster that makes a pitiful \"ping\" sound when fired";
 			
-			this.capabilities.remove(Capability.WEAPON);
+			this.removeCapability(Capability.WEAPON); //through the method, so that the Blaster leaves the index of weapons
 		}
 	}
 	
@@ -5,7 +5,6 @@ import edu.monash.fit2099.simulator.userInterface.MessageRenderer;
 import starwars.SWLegend;
 import starwars.SWWorld;
 import starwars.Team;
-import starwars.actions.Move;
 import starwars.entities.LightSaber;
 import starwars.entities.actors.behaviors.AttackInformation;
 import starwars.entities.actors.behaviors.AttackNeighbours;
@@ -50,14 +49,12 @@ public class BenKenobi extends SWLegend {
 		if (attack != null) {
 			say(getShortDescription() + " suddenly looks sprightly and attacks " +
 		attack.entity.getShortDescription());
-			scheduler.schedule(attack.affordance, ben, 1);
+			scheduler.post(attack.affordance, ben, 1);
 		}
 		else {
 			Direction newdirection = path.getNext();
 			say(getShortDescription() + " moves " + newdirection);
-			Move myMove = new Move(newdirection, messageRenderer, world);
-
-			scheduler.schedule(myMove, this, 1);
+			scheduler.post(getMove(newdirection), this, 1);
 		}
 	}
 
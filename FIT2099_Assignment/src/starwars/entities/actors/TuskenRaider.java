@@ -9,13 +9,15 @@ import starwars.SWActor;
 import starwars.SWLocation;
 import starwars.SWWorld;
 import starwars.Team;
-import starwars.actions.Move;
 import starwars.entities.actors.behaviors.AttackInformation;
 import starwars.entities.actors.behaviors.AttackNeighbours;
 
 public class TuskenRaider extends SWActor {
 
 	private String name;
+	
+	/**Reusable list of the directions this Tusken Raider can move in*/
+	private ArrayList<Direction> possibledirections = new ArrayList<Direction>();
 
 	/**
 	 * Create a Tusken Raider.  Tusken Raiders will randomly wander
@@ -50,11 +52,11 @@ public class TuskenRaider extends SWActor {
 		AttackInformation attack = AttackNeighbours.attackLocals(this, this.world, false, false);
 		if (attack != null) {
 			say(getShortDescription() + " has attacked" + attack.entity.getShortDescription());
-			scheduler.schedule(attack.affordance, this, 1);
+			scheduler.post(attack.affordance, this, 1);
 		}
-		else if (Math.random() > 0.5){
+		else if (world.getRandom().get().nextDouble() > 0.5){
 			
-			ArrayList<Direction> possibledirections = new ArrayList<Direction>();
+			possibledirections.clear();
 
 			// build a list of available directions
 			for (Grid.CompassBearing d : Grid.CompassBearing.values()) {
@@ -63,11 +65,9 @@ public class TuskenRaider extends SWActor {
 				}
 			}
 
-			Direction heading = possibledirections.get((int) (Math.floor(Math.random() * possibledirections.size())));
+			Direction heading = possibledirections.get(world.getRandom().get().nextInt(possibledirections.size()));
 			say(getShortDescription() + "is heading " + heading + " next.");
-			Move myMove = new Move(heading, messageRenderer, world);
-
-			scheduler.schedule(myMove, this, 1);
+			scheduler.post(getMove(heading), this, 1);
 		}
 	}
 
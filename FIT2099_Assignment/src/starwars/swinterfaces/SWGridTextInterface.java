@@ -8,11 +8,13 @@ import java.util.Scanner;
 
 import edu.monash.fit2099.gridworld.GridRenderer;
 import edu.monash.fit2099.simulator.matter.ActionInterface;
+import edu.monash.fit2099.simulator.matter.ChangeLog;
 import edu.monash.fit2099.simulator.matter.EntityManager;
 import starwars.SWEntityInterface;
 import starwars.SWGrid;
 import starwars.SWLocation;
 import starwars.SWWorld;
+import starwars.Terrain;
 
 /**
  * This is the text based user interface for the simulation. Is responsible for outputting a 
@@ -25,6 +27,9 @@ import starwars.SWWorld;
 /*
  * Changelog
  * 2017-02-19	: Show banner method added. I used a boolean attribute to show the banner only once with the map render. (asel)
+ * 2026-10-16	: Reads the contents of a location through a view instead of a copy
+ * 2026-10-16	: Keeps the string of each location and only rebuilds the ones the change log of the entity manager says have changed
+ * 2026-10-16	: The change listener is registered once for all the interfaces, and a location is also rebuilt when its terrain changes
  */
 public class SWGridTextInterface implements GridRenderer {
 	
@@ -36,6 +41,35 @@ public class SWGridTextInterface implements GridRenderer {
 	
 	private static Scanner instream;
 	
+	/**The string of each location by its index in the grid, or null if it has to be rebuilt*/
+	private static String[] locationStrings;
+	
+	/**The terrain of each location when its string was built, so that the string is rebuilt if the terrain has changed*/
+	private static Terrain[] locationTerrains;
+	
+	/*
+	 * Forgets the strings of the locations that entities have entered, left or changed in. The entity manager is shared by
+	 * every interface, and so are the strings, so the listener is registered only once.
+	 */
+	static {
+		SWWorld.getEntitymanager().addChangeListener(new ChangeLog.Listener<SWEntityInterface, SWLocation>() {
+			@Override
+			public void changesMade(ChangeLog<SWEntityInterface, SWLocation> changes) {
+				if (locationStrings == null) {
+					return; //nothing has been drawn yet
+				}
+				for (int i = 0; i < changes.size(); i++) {
+					if (changes.from(i) != null) {
+						locationStrings[grid.indexOf(changes.from(i))] = null;
+					}
+					if (changes.to(i) != null) {
+						locationStrings[grid.indexOf(changes.to(i))] = null;
+					}
+				}
+			}
+		});
+	}
+	
 	/**
 	 * Constructor for the <code>SWGridTextInterface</code>. Will set showBanner flag to true to
 	 * show the text banner with the first map render.
@@ -46,6 +80,10 @@ public class SWGridTextInterface implements GridRenderer {
 	public SWGridTextInterface(SWGrid grid) {
 		SWGridTextInterface.grid = grid;
 		instream = new Scanner(System.in);
+		
+		//start with no strings, so that the map is drawn as it is now, whatever was drawn before
+		locationStrings = new String[grid.getWidth() * grid.getHeight()];
+		locationTerrains = new Terrain[grid.getWidth() * grid.getHeight()];
 		//set the show banner to true so that the banner would be displayed on the first map render
 		showBanner = true;
 	}
@@ -81,10 +119,10 @@ public class SWGridTextInterface implements GridRenderer {
 		StringBuffer buf = new StringBuffer(loc.getSymbol() + ":"); 
 		
 		//get the Contents of the location
-		List<SWEntityInterface> contents = em.contents(loc);
+		List<SWEntityInterface> contents = em.contentsView(loc); //read only, so no need for a copy
 		
 		
-		if (contents == null || contents.isEmpty())
+		if (contents.isEmpty())
 			buf.append(emptyBuffer);//add empty buffer to buf to complete the string buffer
 		else {
 			for (SWEntityInterface e: contents) { //add the symbols of the contents
@@ -146,7 +184,10 @@ public class SWGridTextInterface implements GridRenderer {
 			showBanner();
 		}
 				
-		String buffer = "\n";
+		//catch up with the changes made since the end of the last tick, e.g. while setting up the world
+		SWWorld.getEntitymanager().publishChanges();
+		
+		StringBuilder buffer = new StringBuilder("\n");
 		final int gridHeight = grid.getHeight();
 		final int gridWidth  = grid.getWidth();
 		
@@ -156,10 +197,15 @@ public class SWGridTextInterface implements GridRenderer {
 				
 				SWLocation loc = (SWLocation) grid.getLocationByCoordinates(col, row);
 				
-				//construct the string of a location to be displayed on the text interface
-				buffer = buffer + "|"+ getLocationString(loc)+"| ";
+				//construct the string of a location to be displayed on the text interface, unless it hasn't changed
+				int index = grid.indexOf(loc);
+				if (locationStrings[index] == null || locationTerrains[index] != loc.getTerrain()) {
+					locationStrings[index] = getLocationString(loc);
+					locationTerrains[index] = loc.getTerrain(); //changing the symbols of a location gives it a new terrain
+				}
+				buffer.append("|").append(locationStrings[index]).append("| ");
 			}
-			buffer += "\n"; //new row
+			buffer.append("\n"); //new row
 		}
 		
 		System.out.println(buffer); //print the grid on the screen
@@ -10,6 +10,9 @@
  * Change log
  * 2017-02-02: Displaying the map/grid is now a responsibility of the TextInterface and not of Grid or MiddleWorld (asel)
  * 2017-02-04: Removed the SWGrid parameter from the displayTextGrid method and renamed it to drawGrid() - (asel)
+ * 2026-10-16: drawGrid() prints getGridText(), which can be used without printing
+ * 2026-10-16: Reads the contents of each location through a view instead of a copy
+ * 2026-10-17: getGridText builds the text in a StringBuilder, since concatenating strings takes time quadratic in the size of the grid
  */
 package starwars.userinterfaces;
 
@@ -130,13 +133,25 @@ public class TextInterface implements MessageRenderer, MapRenderer, SimulationCo
 	 * 
 	 * @author 	Asel
 	 * @post 	prints the Grid (a matrix of locations with there contents) on the console as text
-	 * 
+	 * @see 	#getGridText()
 	 */
 	private void drawGrid(){
+		System.out.println(getGridText()); //print the grid on the screen
+	}
+	
+	/**
+	 * Returns the Hobbit Grid as the text that <code>drawGrid()</code> prints.
+	 * <p>
+	 * Each location will be separated out with vertical seperators '|' and will contain the symbols 
+	 * of the locations contents
+	 * 
+	 * @return 	the Grid (a matrix of locations with there contents) as text
+	 */
+	public String getGridText(){
 		
 		assert (grid!=null)	:"grid to be draw cannot be null";
 		
-		String buffer = "";
+		StringBuilder buffer = new StringBuilder();
 		final int gridHeight = grid.getHeight();
 		final int gridWidth  = grid.getWidth();
 		
@@ -160,10 +175,10 @@ public class TextInterface implements MessageRenderer, MapRenderer, SimulationCo
 				StringBuffer buf = new StringBuffer("|" + loc.getSymbol() + ":"); 
 				
 				//get the Contents of the location
-				List<SWEntityInterface> contents = em.contents(loc);
+				List<SWEntityInterface> contents = em.contentsView(loc); //read only, so no need for a copy
 				
 				
-				if (contents == null || contents.isEmpty())
+				if (contents.isEmpty())
 					buf.append(emptyBuffer);//add empty buffer to buf to complete the string buffer
 				else {
 					for (SWEntityInterface e: contents) { //add the symbols of the contents
@@ -176,13 +191,13 @@ public class TextInterface implements MessageRenderer, MapRenderer, SimulationCo
 				
 				buf.append("| ");//add the vertical line seperator to mark the end of that location
 				
-				buffer += buf; //add the buffer (buf) created for the location to the buffer (the buffer that will eventually be printed)
+				buffer.append(buf); //add the buffer (buf) created for the location to the buffer (the buffer that will eventually be printed)
 				
 			}
-			buffer += "\n"; //new row
+			buffer.append("\n"); //new row
 		}
 		
-		System.out.println(buffer); //print the grid on the screen
+		return buffer.toString();
 	}
 	
 	/**